@@ -0,0 +1,32 @@
+package org.example.backend.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+
+/**
+ * Threading model the application runs with.
+ * Virtual threads need both {@code spring.threads.virtual.enabled=true} and a Java 21+
+ * runtime; on older runtimes the property is ignored and everything stays on platform threads.
+ */
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL;
+
+    /**
+     * Resolves the effective mode the same way Spring Boot does for Tomcat and the task executors.
+     */
+    public static ThreadMode from(Environment environment) {
+        return Threading.VIRTUAL.isActive(environment) ? VIRTUAL : PLATFORM;
+    }
+
+    public boolean isVirtual() {
+        return this == VIRTUAL;
+    }
+
+    /**
+     * Value of the {@code thread.mode} metrics tag.
+     */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
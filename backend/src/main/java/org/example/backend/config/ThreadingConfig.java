@@ -0,0 +1,38 @@
+package org.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Exposes the effective {@link ThreadMode}.
+ * Tomcat request threads, the application task executor and the scheduler follow
+ * {@code spring.threads.virtual.enabled} through Spring Boot; {@link WebSocketConfig}
+ * uses the mode for the STOMP channels. Every meter is tagged with {@code thread.mode}
+ * so runs in both modes can be compared on the same dashboards.
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    @Bean
+    public ThreadMode threadMode(Environment environment) {
+        ThreadMode mode = ThreadMode.from(environment);
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && !mode.isVirtual()) {
+            log.warn("Virtual threads requested but Java {} does not support them, using platform threads",
+                    JavaVersion.getJavaVersion());
+        }
+        log.info("Thread mode: {}", mode.tag());
+        return mode;
+    }
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> threadModeTag(ThreadMode threadMode) {
+        return registry -> registry.config().commonTags("thread.mode", threadMode.tag());
+    }
+}
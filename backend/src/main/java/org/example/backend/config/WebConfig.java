@@ -1,28 +1,63 @@
 package org.example.backend.config;
 
 import org.example.backend.security.AdminInterceptor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import java.nio.file.Paths;
 
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
     private final AdminInterceptor adminInterceptor;
+    private final AsyncTaskExecutor asyncExecutor;
+    private final long asyncTimeoutMillis;
 
-    public WebConfig(AdminInterceptor adminInterceptor) {
+    public WebConfig(AdminInterceptor adminInterceptor,
+                     ThreadMode threadMode,
+                     @Value("${app.web.async-max-threads:16}") int asyncMaxThreads,
+                     @Value("${app.web.async-timeout-ms:600000}") long asyncTimeoutMillis) {
         this.adminInterceptor = adminInterceptor;
+        this.asyncExecutor = asyncExecutor(threadMode, asyncMaxThreads);
+        this.asyncTimeoutMillis = asyncTimeoutMillis;
     }
 
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        String uploadPath = Paths.get(System.getProperty("user.dir"), "uploads").toString();
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPath + "/");
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        // @EnableWebMvc tắt cấu hình spring.mvc.async.* của Boot nên khai báo ở đây;
+        // StreamingResponseBody (export) chạy trên executor có giới hạn thay vì mỗi request một thread mới
+        configurer.setTaskExecutor(asyncExecutor);
+        configurer.setDefaultTimeout(asyncTimeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdownAsyncExecutor() {
+        if (asyncExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static AsyncTaskExecutor asyncExecutor(ThreadMode threadMode, int maxThreads) {
+        if (threadMode.isVirtual()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxThreads);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(Math.min(4, maxThreads));
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(100);
+        executor.initialize();
+        return executor;
     }
 
     @Override
@@ -1,9 +1,12 @@
 package org.example.backend.config;
 
+import org.example.backend.metrics.WebSocketMetrics;
 import org.example.backend.security.JwtHandshakeHandler;
 import org.example.backend.security.JwtHandshakeInterceptor;
 import org.example.backend.security.WebSocketAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -16,11 +19,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor;
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+    private final WebSocketMetrics webSocketMetrics;
+    private final ThreadMode threadMode;
+    private final int virtualConcurrencyLimit;
 
     public WebSocketConfig(JwtHandshakeInterceptor jwtHandshakeInterceptor,
-            WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor) {
+            WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor,
+            WebSocketMetrics webSocketMetrics,
+            ThreadMode threadMode,
+            @Value("${app.websocket.virtual.concurrency-limit:1000}") int virtualConcurrencyLimit) {
         this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
         this.webSocketAuthChannelInterceptor = webSocketAuthChannelInterceptor;
+        this.webSocketMetrics = webSocketMetrics;
+        this.threadMode = threadMode;
+        this.virtualConcurrencyLimit = virtualConcurrencyLimit;
     }
 
     @Override
@@ -28,6 +40,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.enableSimpleBroker("/topic", "/queue"); // Kênh để broadcast tin nhắn
         config.setApplicationDestinationPrefixes("/app"); // Prefix cho endpoint gửi tin nhắn
         config.setUserDestinationPrefix("/user"); // Prefix cho tin nhắn cá nhân
+        if (threadMode.isVirtual()) {
+            // Executor không có hàng đợi nên phải giữ thứ tự tin nhắn theo từng session
+            config.setPreservePublishOrder(true);
+        }
     }
 
     @Override
@@ -38,10 +54,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .addInterceptors(jwtHandshakeInterceptor)
                 .setHandshakeHandler(new JwtHandshakeHandler())
                 .withSockJS(); // Hỗ trợ SockJS cho các trình duyệt không hỗ trợ WebSocket
+        if (threadMode.isVirtual()) {
+            registry.setPreserveReceiveOrder(true);
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthChannelInterceptor);
+        registration.interceptors(webSocketAuthChannelInterceptor, webSocketMetrics.inboundInterceptor());
+        if (threadMode.isVirtual()) {
+            registration.executor(virtualExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(webSocketMetrics.outboundInterceptor());
+        if (threadMode.isVirtual()) {
+            registration.executor(virtualExecutor("ws-outbound-"));
+        }
+    }
+
+    /**
+     * One virtual thread per message instead of the default pool of 2 x CPU threads.
+     * Handlers block on JDBC, so the limit keeps a burst from queueing thousands of
+     * threads on the connection pool.
+     */
+    private SimpleAsyncTaskExecutor virtualExecutor(String prefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(virtualConcurrencyLimit);
+        return executor;
     }
 }
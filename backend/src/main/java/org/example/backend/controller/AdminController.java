@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -26,13 +25,13 @@ import java.util.Date;
 import java.text.ParseException;
 
 import org.example.backend.entity.User;
-import org.example.backend.repository.RefreshTokenRepository;
 import org.example.backend.repository.PostRepository;
 import org.example.backend.repository.CommentRepository;
 import org.example.backend.repository.UserRepository;
 import org.example.backend.entity.Comment;
 import org.example.backend.entity.Image;
 import org.example.backend.entity.Like;
+import org.example.backend.service.RefreshTokenService;
 import org.example.backend.service.UserService;
 import org.example.backend.service.CommentService;
 import org.example.backend.service.PostService;
@@ -41,7 +40,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.example.backend.dto.AdminCommentRow;
+import org.example.backend.dto.AdminPostRow;
+import org.example.backend.dto.AdminUserRow;
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.service.AdminExportService;
+import org.example.backend.service.AdminExportService.ExportFormat;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.example.backend.entity.Post;
 
 @RestController
@@ -51,11 +61,12 @@ public class AdminController {
     private final UserService userService;
     private final CommentService commentService;
     private final PostService postService;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final AdminExportService adminExportService;
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<Object>> login(@RequestBody Map<String, String> loginRequest) {
@@ -98,22 +109,13 @@ public class AdminController {
             return ResponseEntity.badRequest().body("Refresh token is required");
         }
 
-        return refreshTokenRepository.findByToken(refreshToken)
-                .map(token -> {
-                    if (token.getExpiryDate().isBefore(Instant.now())) {
-                        refreshTokenRepository.delete(token); // Xóa token hết hạn
-                        return ResponseEntity.status(401).body("Refresh token expired");
-                    }
-
-                    String email = jwtUtil.extractEmail(refreshToken);
-                    if (jwtUtil.isTokenValid(refreshToken, email)) {
-                        String newAccessToken = jwtUtil.generateAccessToken(email);
-                        return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
-                    } else {
-                        return ResponseEntity.status(401).body("Invalid refresh token");
-                    }
-                })
-                .orElse(ResponseEntity.status(401).body("Refresh token not found"));
+        RefreshTokenService.RefreshResult result = refreshTokenService.rotate(refreshToken);
+        return switch (result.outcome()) {
+            case ROTATED -> ResponseEntity.ok(result.tokens());
+            case EXPIRED -> ResponseEntity.status(401).body("Refresh token expired");
+            case REVOKED, REUSED -> ResponseEntity.status(401).body("Refresh token revoked");
+            case INVALID -> ResponseEntity.status(401).body("Invalid refresh token");
+        };
     }
 
     @RequireAdmin
@@ -463,7 +465,121 @@ public class AdminController {
                 .build());
     }
 
-    
+    @RequireAdmin
+    @GetMapping("/users")
+    public ResponseEntity<ApiResponse<Page<AdminUserRow>>> getUsers(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest request) {
+        String baseUrl = baseUrl(request);
+        Page<AdminUserRow> users = adminExportService.findUsers(keyword, active, page, size);
+        users.forEach(user -> user.setAvatar(withDomain(baseUrl, user.getAvatar())));
+        return ResponseEntity.ok(ApiResponse.<Page<AdminUserRow>>builder()
+                .status(200)
+                .message("Success")
+                .data(users)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    @RequireAdmin
+    @GetMapping("/posts")
+    public ResponseEntity<ApiResponse<Page<AdminPostRow>>> getPosts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean deleted,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date start,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date end,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.<Page<AdminPostRow>>builder()
+                .status(200)
+                .message("Success")
+                .data(adminExportService.findPosts(keyword, deleted, userId, start, end, page, size))
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    @RequireAdmin
+    @GetMapping("/comments")
+    public ResponseEntity<ApiResponse<Page<AdminCommentRow>>> getComments(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long postId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date start,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date end,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.<Page<AdminCommentRow>>builder()
+                .status(200)
+                .message("Success")
+                .data(adminExportService.findComments(keyword, postId, start, end, page, size))
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    @RequireAdmin
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean active,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        // Request không còn dùng được khi body chạy trên thread async nên lấy base URL trước
+        String baseUrl = baseUrl(request);
+        return export("users", exportFormat, out -> adminExportService.exportUsers(
+                out, exportFormat, keyword, active, avatar -> withDomain(baseUrl, avatar)));
+    }
+
+    @RequireAdmin
+    @GetMapping("/posts/export")
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean deleted,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date start,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date end) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return export("posts", exportFormat, out -> adminExportService.exportPosts(
+                out, exportFormat, keyword, deleted, userId, start, end));
+    }
+
+    @RequireAdmin
+    @GetMapping("/comments/export")
+    public ResponseEntity<StreamingResponseBody> exportComments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long postId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date start,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") Date end) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return export("comments", exportFormat, out -> adminExportService.exportComments(
+                out, exportFormat, keyword, postId, start, end));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static String baseUrl(HttpServletRequest request) {
+        return request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort();
+    }
+
+    private static String withDomain(String baseUrl, String url) {
+        if (url != null && !url.isEmpty() && !url.startsWith("http")) {
+            return baseUrl + url;
+        }
+        return url;
+    }
 
 }
 
@@ -20,6 +20,7 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.example.backend.util.ImageUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -44,6 +45,9 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ChatController {
 
+    private static final int DOWNLOAD_CONNECT_TIMEOUT_MS = 5_000;
+    private static final int DOWNLOAD_READ_TIMEOUT_MS = 30_000;
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
@@ -251,12 +255,14 @@ public class ChatController {
 
     /**
      * Downloads a file from Cloudinary.
+     * The remote body is streamed to the client as it arrives instead of being buffered.
      *
      * @param fileUrl The URL of the file
      * @return File content
      */
     @GetMapping("/download")
-    public ResponseEntity<byte[]> downloadFile(@RequestParam String fileUrl) {
+    public ResponseEntity<StreamingResponseBody> downloadFile(@RequestParam String fileUrl) {
+        HttpURLConnection connection = null;
         try {
             log.debug("Downloading file from: {}", fileUrl);
 
@@ -265,34 +271,50 @@ public class ChatController {
 
             // Create URL connection
             URL url = new URL(cleanUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
             connection.setRequestProperty("User-Agent", "Mozilla/5.0");
             connection.setRequestProperty("Accept", "*/*");
+            connection.setConnectTimeout(DOWNLOAD_CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(DOWNLOAD_READ_TIMEOUT_MS);
+
+            // Open the stream now so upstream errors still map to an error status
+            InputStream inputStream = connection.getInputStream();
 
-            // Read file content
-            try (InputStream inputStream = connection.getInputStream()) {
-                byte[] fileContent = inputStream.readAllBytes();
+            // Extract filename from URL
+            String fileName = cleanUrl.substring(cleanUrl.lastIndexOf("/") + 1);
+            fileName = URLDecoder.decode(fileName, StandardCharsets.UTF_8);
 
-                // Extract filename from URL
-                String fileName = cleanUrl.substring(cleanUrl.lastIndexOf("/") + 1);
-                fileName = URLDecoder.decode(fileName, StandardCharsets.UTF_8);
+            // Determine content type
+            String contentType = URLConnection.guessContentTypeFromName(fileName);
+            if (contentType == null) {
+                contentType = "application/octet-stream";
+            }
 
-                // Determine content type
-                String contentType = URLConnection.guessContentTypeFromName(fileName);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
+            HttpURLConnection upstream = connection;
+            StreamingResponseBody body = outputStream -> {
+                try (InputStream in = inputStream) {
+                    in.transferTo(outputStream);
+                } finally {
+                    upstream.disconnect();
                 }
+            };
 
-                log.debug("File downloaded successfully: {} ({})", fileName, contentType);
+            log.debug("Streaming file: {} ({})", fileName, contentType);
 
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                        .body(fileContent);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+            long contentLength = connection.getContentLengthLong();
+            if (contentLength >= 0) {
+                response.contentLength(contentLength);
             }
+            return response.body(body);
         } catch (Exception e) {
             log.error("Error downloading file: {}", e.getMessage(), e);
+            if (connection != null) {
+                connection.disconnect();
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -3,6 +3,7 @@ package org.example.backend.controller;
 import org.example.backend.dto.ApiResponse;
 import org.example.backend.dto.PostDTO;
 import org.example.backend.dto.CommentDTO;
+import org.example.backend.dto.UserDTO;
 import org.example.backend.entity.Like;
 import org.example.backend.entity.User;
 import org.example.backend.service.LikeService;
@@ -145,9 +146,9 @@ public class LikeController {
 
     // Lấy danh sách user like bài viết
     @GetMapping("/post/{postId}/users")
-    public ResponseEntity<ApiResponse<List<User>>> getUsersWhoLikedPost(@PathVariable Long postId) {
-        List<User> users = likeService.getUsersWhoLikedPost(postId);
-        return ResponseEntity.ok(ApiResponse.<List<User>>builder()
+    public ResponseEntity<ApiResponse<List<UserDTO>>> getUsersWhoLikedPost(@PathVariable Long postId) {
+        List<UserDTO> users = likeService.getUsersWhoLikedPost(postId);
+        return ResponseEntity.ok(ApiResponse.<List<UserDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("Danh sách người like bài viết")
                 .data(users)
@@ -157,9 +158,9 @@ public class LikeController {
 
     // Lấy danh sách user like bình luận
     @GetMapping("/comment/{commentId}/users")
-    public ResponseEntity<ApiResponse<List<User>>> getUsersWhoLikedComment(@PathVariable Long commentId) {
-        List<User> users = likeService.getUsersWhoLikedComment(commentId);
-        return ResponseEntity.ok(ApiResponse.<List<User>>builder()
+    public ResponseEntity<ApiResponse<List<UserDTO>>> getUsersWhoLikedComment(@PathVariable Long commentId) {
+        List<UserDTO> users = likeService.getUsersWhoLikedComment(commentId);
+        return ResponseEntity.ok(ApiResponse.<List<UserDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("Danh sách người like bình luận")
                 .data(users)
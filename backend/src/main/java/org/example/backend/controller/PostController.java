@@ -1,15 +1,16 @@
 package org.example.backend.controller;
 
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.HashtagCount;
 import org.example.backend.entity.Image;
 import org.example.backend.entity.Post;
-import org.example.backend.elasticsearch.document.PostDocument;
 import org.example.backend.entity.User;
 import org.example.backend.security.JwtUtil;
 import org.example.backend.service.PostService;
 import org.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,9 +20,9 @@ import org.springframework.web.bind.annotation.*;
 import org.example.backend.dto.CreatePostRequest;
 import org.example.backend.dto.PostDTO;
 import org.example.backend.dto.UpdatePostRequest;
-import org.example.backend.mapper.PostMapper;
 import org.example.backend.service.ImageService;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
@@ -39,8 +40,6 @@ public class PostController {
     @Autowired
     private UserService userService;
     @Autowired
-    private PostMapper postMapper;
-    @Autowired
     private ImageService imageService;
 
 
@@ -192,9 +191,15 @@ public class PostController {
     }
 
     @GetMapping("/reposts/{originalPostId}")
-    public ResponseEntity<ApiResponse<List<Post>>> getReposts(@PathVariable Long originalPostId) {
-        List<Post> reposts = postService.getReposts(originalPostId);
-        ApiResponse<List<Post>> response = ApiResponse.<List<Post>>builder()
+    public ResponseEntity<ApiResponse<List<PostDTO>>> getReposts(
+            @PathVariable Long originalPostId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserInfo(email);
+
+        List<PostDTO> reposts = postService.getReposts(originalPostId, user, page, Math.min(size, 50));
+        ApiResponse<List<PostDTO>> response = ApiResponse.<List<PostDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("Lấy danh sách repost thành công")
                 .data(reposts)
@@ -248,13 +253,74 @@ public class PostController {
         String email = jwtUtil.extractEmail(token.replace("Bearer ", ""));
         User user = userService.getUserInfo(email);
 
-        Page<PostDocument> postDocuments = postService.searchPosts(keyword, user, page, size);
-        Page<PostDTO> postDtos = postDocuments.map(postDocument -> {
-            User userPost = userService.getUserById(Long.parseLong(postDocument.getUserId()));
-            return postMapper.toDTO(postDocument, userPost);
-        });
+        return ResponseEntity.ok(postService.searchPostDtos(keyword, user, page, size));
+    }
+
+    @GetMapping("/hashtag/{tag}")
+    public ResponseEntity<ApiResponse<Page<PostDTO>>> getPostsByHashtag(
+            @PathVariable String tag,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserInfo(email);
+
+        ApiResponse<Page<PostDTO>> response = ApiResponse.<Page<PostDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Lấy bài viết theo hashtag thành công")
+                .data(postService.getPostDtosByHashtag(tag, user, page, Math.min(size, 50)))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<PostDTO>>> getTrendingPosts(
+            @RequestParam(defaultValue = "20") int limit) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserInfo(email);
+
+        ApiResponse<List<PostDTO>> response = ApiResponse.<List<PostDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Lấy bài viết thịnh hành thành công")
+                .data(postService.getTrendingPostDtos(user, limit))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        // Có trạng thái đã thích của từng người nên chỉ cache ở trình duyệt
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+                .body(response);
+    }
+
+    @GetMapping("/hashtags/trending")
+    public ResponseEntity<ApiResponse<List<HashtagCount>>> getTrendingHashtags(
+            @RequestParam(defaultValue = "10") int limit) {
+        ApiResponse<List<HashtagCount>> response = ApiResponse.<List<HashtagCount>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Lấy hashtag thịnh hành thành công")
+                .data(postService.getTrendingHashtags(limit))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        // Danh sách giống nhau cho mọi người và chỉ tính lại mỗi phút
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)))
+                .body(response);
+    }
+
+    // Bài viết nhắc đến người dùng hiện tại
+    @GetMapping("/mentions")
+    public ResponseEntity<ApiResponse<Page<PostDTO>>> getMentions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserInfo(email);
 
-        return ResponseEntity.ok(postDtos);
+        ApiResponse<Page<PostDTO>> response = ApiResponse.<Page<PostDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Lấy bài viết nhắc đến bạn thành công")
+                .data(postService.getPostDtosMentioning(user, page, Math.min(size, 50)))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        return ResponseEntity.ok(response);
     }
 
 }
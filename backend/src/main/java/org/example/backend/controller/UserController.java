@@ -3,16 +3,19 @@ package org.example.backend.controller;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.example.backend.dto.RegisterWithOtpRequest;
+import org.example.backend.dto.UserSuggestion;
 import org.example.backend.elasticsearch.document.UserDocument;
 import org.example.backend.entity.User;
-import org.example.backend.repository.RefreshTokenRepository;
 import org.example.backend.security.JwtUtil;
+import org.example.backend.service.RefreshTokenService;
 import org.example.backend.service.OtpService;
 import org.example.backend.service.UserService;
+import org.example.backend.service.UserTypeaheadService;
 import org.example.backend.util.ImageUtils;
 import org.example.backend.websocket.WebSocketEventListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +23,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.Instant;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,8 +36,9 @@ import java.util.stream.Collectors;
 public class UserController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final OtpService otpService;
+    private final UserTypeaheadService userTypeaheadService;
 
     @Autowired
     private WebSocketEventListener webSocketEventListener;
@@ -79,29 +83,20 @@ public class UserController {
             return ResponseEntity.badRequest().body("Refresh token is required");
         }
 
-        return refreshTokenRepository.findByToken(refreshToken)
-                .map(token -> {
-                    if (token.getExpiryDate().isBefore(Instant.now())) {
-                        refreshTokenRepository.delete(token); // Xóa token hết hạn
-                        return ResponseEntity.status(401).body("Refresh token expired");
-                    }
-
-                    String email = jwtUtil.extractEmail(refreshToken);
-                    if (jwtUtil.isTokenValid(refreshToken, email)) {
-                        String newAccessToken = jwtUtil.generateAccessToken(email);
-                        return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
-                    } else {
-                        return ResponseEntity.status(401).body("Invalid refresh token");
-                    }
-                })
-                .orElse(ResponseEntity.status(401).body("Refresh token not found"));
+        RefreshTokenService.RefreshResult result = refreshTokenService.rotate(refreshToken);
+        return switch (result.outcome()) {
+            case ROTATED -> ResponseEntity.ok(result.tokens());
+            case EXPIRED -> ResponseEntity.status(401).body("Refresh token expired");
+            case REVOKED, REUSED -> ResponseEntity.status(401).body("Refresh token revoked");
+            case INVALID -> ResponseEntity.status(401).body("Invalid refresh token");
+        };
     }
 
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
         String email = request.get("email");
 
-        refreshTokenRepository.deleteByEmail(email);
+        refreshTokenService.revokeAll(email);
         return ResponseEntity.ok("User logged out successfully");
     }
 
@@ -191,6 +186,26 @@ public class UserController {
         return users.map(user -> addDomainToImage(user, request));
     }
 
+    /**
+     * Typeahead for the search box, called on every keystroke.
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<UserSuggestion>> typeahead(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int limit,
+            HttpServletRequest request) {
+        String baseUrl = request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort();
+        List<UserSuggestion> suggestions = userTypeaheadService.suggest(query, limit).stream()
+                .map(suggestion -> suggestion.avatar() != null && !suggestion.avatar().startsWith("http")
+                        ? suggestion.withAvatar(baseUrl + suggestion.avatar())
+                        : suggestion)
+                .toList();
+        // Trình duyệt tự dùng lại kết quả khi người dùng xoá rồi gõ lại cùng tiền tố
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+                .body(suggestions);
+    }
+
     private User addDomainToImage(User user, HttpServletRequest request) {
         String baseUrl = request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort();
         user.setAvatar((user.getAvatar() != null && !user.getAvatar().isEmpty()) ? baseUrl + user.getAvatar() : null);
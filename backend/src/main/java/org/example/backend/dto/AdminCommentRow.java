@@ -0,0 +1,24 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Flat comment row for the admin comment list and export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminCommentRow {
+    private Long id;
+    private Long postId;
+    private Long parentCommentId;
+    private Long userId;
+    private String userEmail;
+    private String content;
+    private Boolean isDeleted;
+    private Date createdAt;
+}
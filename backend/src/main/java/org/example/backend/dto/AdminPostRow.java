@@ -0,0 +1,27 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Flat post row for the admin post list and export, with counts instead of collections.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminPostRow {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private String userFirstName;
+    private String userLastName;
+    private String content;
+    private Long originalPostId;
+    private Boolean isDeleted;
+    private Date createdAt;
+    private Long likeCount;
+    private Long commentCount;
+}
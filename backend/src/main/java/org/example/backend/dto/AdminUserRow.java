@@ -0,0 +1,24 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat user row for the admin user list and export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserRow {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String avatar;
+    private Boolean isActive;
+    private LocalDateTime dateJoined;
+    private LocalDateTime lastLogin;
+}
@@ -0,0 +1,18 @@
+package org.example.backend.dto;
+
+import org.example.backend.entity.User;
+import org.example.backend.mapper.UserMapper;
+
+import java.util.Date;
+
+/**
+ * Columns of a comment and its author that {@link CommentDTO} shows.
+ */
+public record CommentRow(Long id, String content, Long postId, Long parentId, Date createdAt, Date updatedAt,
+                         Long userId, String email, String firstName, String lastName, String avatar,
+                         String avatarThumbnail) {
+
+    public User author() {
+        return UserMapper.toAuthor(userId, email, firstName, lastName, avatar, avatarThumbnail);
+    }
+}
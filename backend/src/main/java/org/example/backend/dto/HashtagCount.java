@@ -0,0 +1,7 @@
+package org.example.backend.dto;
+
+/**
+ * How often a hashtag was used within the trending window.
+ */
+public record HashtagCount(String tag, long count) {
+}
@@ -0,0 +1,21 @@
+package org.example.backend.dto;
+
+import org.example.backend.entity.Image;
+
+/**
+ * URLs of an image attached to a post or comment.
+ *
+ * @param ownerId Id of the post or comment the image belongs to
+ */
+public record ImageRow(Long ownerId, Long id, String url, String thumbnailUrl, String mediumUrl) {
+
+    // Ảnh chỉ mang URL, không tham chiếu ngược tới bài viết hay bình luận
+    public Image toImage() {
+        return Image.builder()
+                .id(id)
+                .url(url)
+                .thumbnailUrl(thumbnailUrl)
+                .mediumUrl(mediumUrl)
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.backend.dto;
+
+import org.example.backend.entity.User;
+import org.example.backend.mapper.UserMapper;
+
+/**
+ * A user who liked a comment, with the columns shown in the comment's like list.
+ */
+public record LikerRow(Long commentId, Long userId, String email, String firstName, String lastName, String avatar,
+                       String avatarThumbnail) {
+
+    public User user() {
+        return UserMapper.toAuthor(userId, email, firstName, lastName, avatar, avatarThumbnail);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+/**
+ * Projection of a per-post row count, e.g. likes or comments.
+ */
+public interface PostCount {
+    Long getPostId();
+
+    Long getCount();
+}
@@ -28,6 +28,7 @@ public class PostDTO {
     private long likesCount;
     private boolean liked; // Status if the current user liked this post
     private long commentsCount;
+    private long repostsCount; // Số repost đang hiển thị của bài
     // private boolean saved; // Keep commented if not implemented yet
     @JsonInclude(JsonInclude.Include.NON_NULL) // Chỉ include nếu originalPost không null
     private PostDTO originalPost; // Thêm trường này để chứa thông tin bài gốc
@@ -0,0 +1,26 @@
+package org.example.backend.dto;
+
+import org.example.backend.entity.User;
+import org.example.backend.mapper.UserMapper;
+
+import java.util.Date;
+
+/**
+ * Columns of a post and its author that {@link PostDTO} shows, read with one
+ * constructor query instead of loading the entity graph.
+ */
+public record PostRow(Long id, String content, Date createdAt, Date updatedAt, boolean deleted, long repostCount,
+                      Long originalPostId, Long rootPostId, Long userId, String email, String firstName,
+                      String lastName, String avatar, String avatarThumbnail) {
+
+    /**
+     * Id of the first post of the repost chain, or null if the post is not a repost.
+     */
+    public Long chainRootId() {
+        return rootPostId != null ? rootPostId : originalPostId;
+    }
+
+    public User author() {
+        return UserMapper.toAuthor(userId, email, firstName, lastName, avatar, avatarThumbnail);
+    }
+}
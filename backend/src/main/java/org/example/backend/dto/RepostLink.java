@@ -0,0 +1,7 @@
+package org.example.backend.dto;
+
+/**
+ * A repost and the post it reposts, for resolving the first post of its chain.
+ */
+public record RepostLink(Long postId, Long originalPostId, Long rootPostId, boolean deleted) {
+}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+/**
+ * Projection of how many rows point at a media URL.
+ */
+public interface UrlReferenceCount {
+    String getUrl();
+
+    Long getCount();
+}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+/**
+ * Projection of a per-user row count, e.g. mutual friends.
+ */
+public interface UserCount {
+    Long getUserId();
+
+    Long getCount();
+}
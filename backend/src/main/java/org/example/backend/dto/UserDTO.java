@@ -16,5 +16,7 @@ public class UserDTO {
     private String lastName;
     private String avatar;
     private String background;
+    private String avatarThumbnail;
+    private String backgroundMedium;
     private String bio;
 }
@@ -0,0 +1,13 @@
+package org.example.backend.dto;
+
+/**
+ * One typeahead entry. Kept immutable because lists of these are shared through the prefix cache.
+ *
+ * @param avatar Thumbnail when one exists, otherwise the full avatar
+ */
+public record UserSuggestion(Long id, String email, String name, String avatar) {
+
+    public UserSuggestion withAvatar(String avatar) {
+        return new UserSuggestion(id, email, name, avatar);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.backend.elasticsearch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.search.LocalSearchBackend;
+import org.example.backend.search.RoutingSearchBackend;
+import org.example.backend.service.PostSearchIndexer;
+import org.example.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Creates the current search indices on startup and backfills them from MySQL.
+ * Index names carry a version ({@link PostDocument#INDEX}, {@link UserDocument#INDEX});
+ * a missing index is created from its versioned settings and mapping files, filled in
+ * the background, and the listed legacy indices can then be dropped. Search returns
+ * partial results until the backfill finishes. When the in-process
+ * {@link LocalSearchBackend} is in use it starts empty and is filled the same way.
+ */
+@Slf4j
+@Component
+public class SearchIndexBootstrap {
+
+    private record ManagedIndex(Class<?> documentClass, String name, List<String> legacyIndices,
+                                Supplier<CompletableFuture<Integer>> backfill) {
+    }
+
+    private final ElasticsearchOperations operations;
+    private final RoutingSearchBackend searchBackend;
+    private final LocalSearchBackend localSearchBackend;
+    private final PostSearchIndexer postSearchIndexer;
+    private final UserService userService;
+    private final boolean enabled;
+    private final boolean dropLegacy;
+    private final List<ManagedIndex> indices;
+    private final ThreadPoolTaskExecutor executor;
+
+    public SearchIndexBootstrap(
+            ElasticsearchOperations operations,
+            RoutingSearchBackend searchBackend,
+            LocalSearchBackend localSearchBackend,
+            PostSearchIndexer postSearchIndexer,
+            UserService userService,
+            @Value("${app.search.bootstrap:true}") boolean enabled,
+            @Value("${app.search.drop-legacy:false}") boolean dropLegacy,
+            @Value("${app.search.posts.legacy-indices:posts,posts_v2,posts_v3}") List<String> legacyPostIndices,
+            @Value("${app.search.users.legacy-indices:users}") List<String> legacyUserIndices) {
+        this.operations = operations;
+        this.searchBackend = searchBackend;
+        this.localSearchBackend = localSearchBackend;
+        this.postSearchIndexer = postSearchIndexer;
+        this.userService = userService;
+        this.enabled = enabled;
+        this.dropLegacy = dropLegacy;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("search-backfill-");
+        executor.initialize();
+
+        // Bài viết chạy trên thread của indexer để không ghi đè thay đổi mới hơn đang chờ
+        this.indices = List.of(
+                new ManagedIndex(PostDocument.class, PostDocument.INDEX, legacyPostIndices,
+                        postSearchIndexer::reindexAllAsync),
+                new ManagedIndex(UserDocument.class, UserDocument.INDEX, legacyUserIndices,
+                        () -> CompletableFuture.supplyAsync(userService::saveAllUsersToES, executor)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndices() {
+        if (searchBackend.usesLocal()) {
+            fillLocalIndex();
+        }
+        if (!enabled || !searchBackend.usesElasticsearch()) {
+            return;
+        }
+        indices.forEach(this::ensureIndex);
+    }
+
+    private void fillLocalIndex() {
+        long started = System.currentTimeMillis();
+        CompletableFuture.allOf(
+                        postSearchIndexer.reindexAllAsync(localSearchBackend),
+                        CompletableFuture.supplyAsync(() -> userService.saveAllUsersTo(localSearchBackend), executor))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Filling the local search index failed: {}", error.getMessage());
+                        return;
+                    }
+                    log.info("Filled the local search index with {} posts and {} users in {} ms",
+                            localSearchBackend.postCount(), localSearchBackend.userCount(),
+                            System.currentTimeMillis() - started);
+                });
+    }
+
+    private void ensureIndex(ManagedIndex index) {
+        IndexOperations indexOps = operations.indexOps(index.documentClass());
+        try {
+            if (indexOps.exists()) {
+                return;
+            }
+            indexOps.createWithMapping();
+        } catch (RuntimeException e) {
+            // ES chưa sẵn sàng thì vẫn cho ứng dụng chạy, lần khởi động sau sẽ tạo lại
+            log.warn("Could not create search index {}: {}", index.name(), e.getMessage());
+            return;
+        }
+
+        log.info("Created search index {}, backfilling from the database", index.name());
+        long started = System.currentTimeMillis();
+        index.backfill().get().whenComplete((count, error) -> {
+            if (error != null) {
+                log.warn("Backfill of {} failed, run /api/es/sync to retry: {}", index.name(), error.getMessage());
+                return;
+            }
+            log.info("Backfilled {} documents into {} in {} ms", count, index.name(), System.currentTimeMillis() - started);
+            if (dropLegacy) {
+                dropLegacyIndices(index);
+            }
+        });
+    }
+
+    private void dropLegacyIndices(ManagedIndex index) {
+        for (String name : index.legacyIndices()) {
+            if (name.isBlank() || name.equals(index.name())) {
+                continue;
+            }
+            try {
+                if (operations.indexOps(IndexCoordinates.of(name)).delete()) {
+                    log.info("Dropped legacy search index {}", name);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not drop legacy search index {}: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.backend.elasticsearch.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * Author fields copied into a post document so search hits render without a user lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthorSummary {
+
+    @Field(type = FieldType.Long)
+    private Long id;
+
+    @Field(type = FieldType.Keyword)
+    private String email;
+
+    @Field(type = FieldType.Text)
+    private String firstName;
+
+    @Field(type = FieldType.Text)
+    private String lastName;
+
+    @Field(type = FieldType.Keyword, index = false)
+    private String avatar;
+
+    @Field(type = FieldType.Keyword, index = false)
+    private String avatarThumbnail;
+}
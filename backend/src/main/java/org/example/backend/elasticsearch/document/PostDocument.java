@@ -3,68 +3,83 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.example.backend.entity.Comment;
 import org.example.backend.entity.Image;
-import org.example.backend.entity.Like;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.annotations.WriteTypeHint;
 
 
 import java.util.Date;
 import java.util.List;
 
 
-@Document(indexName = "posts")
+/**
+ * Search document of a post.
+ * Mappings and analyzers come from the versioned JSON files next to the index name,
+ * not from these annotations, which only drive conversion. To change the mapping,
+ * add new files, bump {@link #INDEX} and let {@code SearchIndexBootstrap} create and
+ * backfill the new index on the next start.
+ */
+@Document(indexName = PostDocument.INDEX, createIndex = false, writeTypeHint = WriteTypeHint.FALSE)
+@Setting(settingPath = "/elasticsearch/posts-v4-settings.json")
+@Mapping(mappingPath = "/elasticsearch/posts-v4-mapping.json")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PostDocument {
 
+    public static final String INDEX = "posts_v4";
+
     @Id
     private String id;  // ES sử dụng String làm ID
 
     @Field(type = FieldType.Text)
     private String content;
 
+    // Chỉ lưu trong _source để hiển thị, không index
     @Field(type = FieldType.Object)
     private List<Image> images;
 
     @Field(type = FieldType.Keyword)
     private String userId;  // Lưu userId thay vì object User
 
-    @Field(type = FieldType.Date, format = DateFormat.date_time, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    // Thông tin tác giả chép sẵn để trả kết quả tìm kiếm không cần đọc MySQL
+    @Field(type = FieldType.Object)
+    private AuthorSummary author;
+
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
     private Date createdAt;
 
-    @Field(type = FieldType.Date, format = DateFormat.date_time, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
     private Date updatedAt;
 
     @Field(type = FieldType.Keyword)
-    private String originalPostId;  // Lưu originalPostId thay vì Post
-
-    @Field(type = FieldType.Object)
-    private List<Comment> comments;
+    private String originalPostId;  // Id bài đầu chuỗi repost, là bài được hiển thị trong thẻ repost
 
     @Field(type = FieldType.Object)
-    private List<Like> likes;
+    private RepostSummary originalPost;
 
-    @Field(type = FieldType.Boolean)
-    private boolean isDeleted;
+    // Hashtag đã chuẩn hoá và id người được nhắc, tra cứu bằng term thay vì full-text
+    @Field(type = FieldType.Keyword)
+    private List<String> hashtags;
 
-    @Field(type = FieldType.Date, format = DateFormat.date_time, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
-    private String deletedAt;
+    @Field(type = FieldType.Keyword)
+    private List<String> mentionedUserIds;
 
     @Field(type = FieldType.Boolean)
-    private boolean likedByCurrentUser;
+    private boolean deleted;
 
-    @Field(type = FieldType.Integer)
+    @Field(type = FieldType.Long)
     private long likeCount;
 
-    @Field(type = FieldType.Integer)
-    private long totalCommentCount;
+    @Field(type = FieldType.Long)
+    private long commentCount;
 
-    public void setIsDeleted(boolean deleted) {
-    }
+    @Field(type = FieldType.Long)
+    private long repostCount;
 }
@@ -0,0 +1,42 @@
+package org.example.backend.elasticsearch.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.Image;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The original post of a repost, as shown inside the repost card.
+ * Only display fields are kept; the original's own counts are not shown there.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepostSummary {
+
+    @Field(type = FieldType.Long)
+    private Long id;
+
+    @Field(type = FieldType.Text, index = false)
+    private String content;
+
+    @Field(type = FieldType.Object)
+    private AuthorSummary author;
+
+    @Field(type = FieldType.Object, enabled = false)
+    private List<Image> images;
+
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Date createdAt;
+
+    @Field(type = FieldType.Boolean)
+    private boolean deleted;
+}
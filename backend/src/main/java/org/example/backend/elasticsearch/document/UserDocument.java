@@ -6,13 +6,23 @@ import org.springframework.data.elasticsearch.annotations.*;
 
 import java.time.ZonedDateTime;
 
-@Document(indexName = "users")
+/**
+ * Search document of a user.
+ * Mappings come from the versioned JSON files; {@code fullName.prefix} is an
+ * edge n-gram subfield used by the typeahead. See {@link PostDocument} for how
+ * versions are rolled out.
+ */
+@Document(indexName = UserDocument.INDEX, createIndex = false, writeTypeHint = WriteTypeHint.FALSE)
+@Setting(settingPath = "/elasticsearch/users-v2-settings.json")
+@Mapping(mappingPath = "/elasticsearch/users-v2-mapping.json")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class UserDocument {
 
+    public static final String INDEX = "users_v2";
+
     @Id
     private String id;
 
@@ -24,6 +34,8 @@ public class UserDocument {
 
     private String avatar;
 
+    private String avatarThumbnail;
+
     private String bio;
 
     private Boolean isStaff;
@@ -3,10 +3,15 @@ package org.example.backend.elasticsearch.repository;
 import org.example.backend.elasticsearch.document.PostDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.annotations.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 public interface PostESRepository extends ElasticsearchRepository<PostDocument, String> {
-    Page<PostDocument> findByContentContainingAndIsDeletedFalse(String keyword, Pageable pageable);
+    // match qua analyzer vi_text (bỏ dấu) thay cho wildcard *keyword* của "Containing"
+    @Query("{\"bool\": {\"must\": {\"match\": {\"content\": {\"query\": \"?0\", \"operator\": \"and\"}}}, " +
+            "\"filter\": {\"term\": {\"deleted\": false}}}}")
+    Page<PostDocument> searchVisibleByContent(String keyword, Pageable pageable);
 
-    Page<PostDocument> findByContentContaining(String keyword, Pageable pageable);
+    @Query("{\"match\": {\"content\": {\"query\": \"?0\", \"operator\": \"and\"}}}")
+    Page<PostDocument> searchByContent(String keyword, Pageable pageable);
 }
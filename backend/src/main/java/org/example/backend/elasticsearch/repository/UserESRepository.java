@@ -3,6 +3,8 @@ package org.example.backend.elasticsearch.repository;
 import org.example.backend.elasticsearch.document.UserDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.annotations.Query;
+import org.springframework.data.elasticsearch.annotations.SourceFilters;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 import java.util.List;
@@ -17,4 +19,11 @@ public interface UserESRepository extends ElasticsearchRepository<UserDocument,
             Boolean isActive,
             Pageable pageable);
 
+    /**
+     * Typeahead lookup on the edge n-gram subfield, returning only the fields a suggestion shows.
+     */
+    @Query("{\"bool\": {\"must\": {\"match\": {\"fullName.prefix\": {\"query\": \"?0\", \"operator\": \"and\"}}}, " +
+            "\"filter\": {\"term\": {\"isActive\": true}}}}")
+    @SourceFilters(includes = {"id", "email", "firstName", "lastName", "avatar", "avatarThumbnail"})
+    List<UserDocument> suggestByNamePrefix(String prefix, Pageable pageable);
 }
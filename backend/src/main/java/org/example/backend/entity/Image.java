@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import jakarta.persistence.*;
+import org.example.backend.storage.ImageVariant;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
@@ -24,15 +25,26 @@ public class Image {
     @Column(nullable = false)
     private String url; // Lưu đường dẫn ảnh (ví dụ: link từ S3, Firebase)
 
+    private String thumbnailUrl; // Ảnh thu nhỏ cho danh sách, null nếu chưa tạo
+
+    private String mediumUrl; // Bản nén cho feed, null nếu chưa tạo
+
     @JsonBackReference // Thêm annotation này
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Post post;
 
     @JsonBackReference // Thêm annotation này
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "comment_id")
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Comment comment;
+
+    @PrePersist
+    protected void onCreate() {
+        // Ảnh trên Cloudinary được resize qua URL nên có biến thể ngay
+        if (thumbnailUrl == null) thumbnailUrl = ImageVariant.THUMBNAIL.cloudinaryUrl(url);
+        if (mediumUrl == null) mediumUrl = ImageVariant.MEDIUM.cloudinaryUrl(url);
+    }
 }
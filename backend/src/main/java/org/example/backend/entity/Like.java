@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
 
 @Entity
 @Table(name = "likes")
@@ -21,17 +24,22 @@ public class Like {
     private Long id;
 
     @JsonBackReference // Thêm annotation này
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "comment_id")
     @JsonBackReference // Thêm annotation này
     private Comment comment;
 
     @JsonBackReference // Thêm annotation này
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Thời điểm thích, để gỡ lượt thích trừ đúng phần điểm trending đã suy giảm; null với dữ liệu cũ
+    @Temporal(TemporalType.TIMESTAMP)
+    @CreationTimestamp
+    private Date createdAt;
 }
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "idx_notification_receiver_created", columnList = "receiverId, createdAt"),
+        @Index(name = "idx_notification_read_created", columnList = "isRead, createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Table
+@Table(indexes = {
+        @Index(name = "idx_otp_email_otp", columnList = "email, otp"),
+        @Index(name = "idx_otp_expiration", columnList = "expirationTime")
+})
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Table
+@Table(indexes = {
+        @Index(name = "idx_password_reset_token", columnList = "token"),
+        @Index(name = "idx_password_reset_expiration", columnList = "expiration")
+})
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
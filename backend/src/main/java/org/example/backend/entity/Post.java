@@ -9,11 +9,12 @@ import jakarta.persistence.*;
 import java.util.Date;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = @Index(name = "idx_posts_root_post_id", columnList = "root_post_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor 
@@ -31,7 +32,8 @@ public class Post {
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Image> images;
 
-    @ManyToOne
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -44,9 +46,17 @@ public class Post {
     @Temporal(TemporalType.TIMESTAMP)
     private Date updatedAt;
 
-    @ManyToOne
+    // Lazy để đọc một repost không kéo theo cả chuỗi bài nó repost
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "original_post_id")
-    private Post originalPost; // Bài gốc nếu là repost
+    private Post originalPost; // Bài được repost trực tiếp nếu là repost
+
+    @Column(name = "root_post_id")
+    private Long rootPostId; // Bài đầu chuỗi repost, thẻ repost hiển thị bài này
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long repostCount; // Số repost đang hiển thị có bài này là bài đầu chuỗi
 
     @JsonManagedReference // Thêm annotation này
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
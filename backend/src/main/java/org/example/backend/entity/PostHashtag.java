@@ -0,0 +1,39 @@
+package org.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hashtag used in a post, normalized to lowercase without the '#'.
+ */
+@Entity
+@Table(name = "post_hashtags",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_hashtag", columnNames = {"postId", "tag"}),
+        indexes = {
+                @Index(name = "idx_post_hashtag_tag_post", columnList = "tag, postId"),
+                @Index(name = "idx_post_hashtag_created", columnList = "createdAt")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostHashtag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false, length = 100)
+    private String tag;
+
+    // Thời điểm hashtag được thêm vào bài, dùng cho cửa sổ trending
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
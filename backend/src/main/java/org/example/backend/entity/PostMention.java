@@ -0,0 +1,35 @@
+package org.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user mentioned in a post.
+ */
+@Entity
+@Table(name = "post_mentions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_mention", columnNames = {"postId", "userId"}),
+        indexes = @Index(name = "idx_post_mention_user_post", columnList = "userId, postId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostMention {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package org.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Persisted trending score of a post, so scores survive restarts.
+ * {@code score} is the decayed value as of {@code scoredAt}.
+ */
+@Entity
+@Table(name = "post_trend_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostTrendScore {
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(nullable = false)
+    private Instant scoredAt;
+}
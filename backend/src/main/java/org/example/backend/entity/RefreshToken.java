@@ -6,6 +6,10 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_expiry", columnList = "expiryDate"),
+        @Index(name = "idx_refresh_token_email", columnList = "email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
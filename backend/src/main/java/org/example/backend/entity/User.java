@@ -45,6 +45,12 @@ public class User {
     @Column()
     private String background;
 
+    @Column
+    private String avatarThumbnail;
+
+    @Column
+    private String backgroundMedium;
+
     @Column(nullable = false)
     private Boolean isStaff;
 
@@ -4,6 +4,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.metrics.QueryBudgetExceededException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -18,6 +19,17 @@ public class GlobalExceptionHandler {
                 .build());
     }
 
+    // Chế độ nghiêm ngặt của ngân sách SQL: trả lỗi kèm báo cáo để test thấy câu lệnh vi phạm
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<ApiResponse> handleQueryBudgetExceeded(QueryBudgetExceededException e) {
+        ErrorCode errorCode = ErrorCode.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.internalServerError().body(ApiResponse.builder()
+                .status(errorCode.getCode())
+                .message(e.getMessage())
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
     @ExceptionHandler(AppException.class)
     public ResponseEntity<ApiResponse> handleAppException(AppException e) {
         ErrorCode errorCode = e.getErrorCode();
@@ -1,115 +1,205 @@
 package org.example.backend.mapper;
 
 import org.example.backend.dto.PostDTO;
+import org.example.backend.dto.PostRow;
+import org.example.backend.elasticsearch.document.AuthorSummary;
+import org.example.backend.elasticsearch.document.RepostSummary;
+import org.example.backend.entity.Image;
 import org.example.backend.entity.Post;
 import org.example.backend.entity.User;
-import org.example.backend.repository.LikeRepository;
-import org.example.backend.repository.CommentRepository;
-import org.example.backend.repository.PostRepository;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Component;
-import lombok.RequiredArgsConstructor;
 import org.example.backend.elasticsearch.document.PostDocument;
 
 
 @Component
-@RequiredArgsConstructor
 public class PostMapper {
-    private final LikeRepository likeRepository;
-    private final CommentRepository commentRepository;
-    private final PostRepository postRepository;
-    public PostDTO toDto(Post post, User currentUser) {
+
+    /**
+     * Builds the DTO of a post from its projection row, with counts, images and the
+     * original looked up in batch by the caller. The original is rendered shallow, so a
+     * chain of reposts never recurses.
+     *
+     * @param post Row of the post to render
+     * @param root Row of the first post of the repost chain, or null if the post is not a repost
+     * @param images Images by post id, covering the post and the root
+     * @param likedByCurrentUser Whether the viewer liked the post
+     * @param likesCount Like count of the post
+     * @param commentsCount Comment count of the post
+     */
+    public PostDTO toDto(PostRow post, PostRow root, Map<Long, List<Image>> images, boolean likedByCurrentUser,
+                         long likesCount, long commentsCount) {
         if (post == null) {
             return null;
         }
 
-        boolean likedByCurrentUser = false;
-        if (currentUser != null) {
-            likedByCurrentUser = likeRepository.findByUserAndPost(currentUser, post).isPresent();
-        }
-        long likesCount = likeRepository.countByPostId(post.getId());
-        long commentsCount = commentRepository.countByPostId(post.getId());
-
-        // Xử lý originalPost bị xóa
         PostDTO originalPostDto = null;
-        if (post.getOriginalPost() != null) {
-            Post originalPost = post.getOriginalPost();
-            if (originalPost.isDeleted()) {
-                // Nếu bài gốc đã xóa, chỉ giữ lại thông tin cơ bản
-                originalPostDto = PostDTO.builder()
-                        .id(originalPost.getId())
-                        .user(originalPost.getUser())
-                        .isDeleted(true)
-                        .createdAt(originalPost.getCreatedAt())
-                        .build();
-            } else {
-                originalPostDto = toDto(originalPost, currentUser);
+        if (root != null) {
+            PostDTO.PostDTOBuilder builder = PostDTO.builder()
+                    .id(root.id())
+                    .user(root.author())
+                    .isDeleted(root.deleted())
+                    .createdAt(root.createdAt());
+            // Nếu bài gốc đã xóa, chỉ giữ lại thông tin cơ bản
+            if (!root.deleted()) {
+                builder.content(root.content())
+                        .images(images.getOrDefault(root.id(), Collections.emptyList()))
+                        .updatedAt(root.updatedAt())
+                        .repostsCount(root.repostCount());
             }
+            originalPostDto = builder.build();
         }
 
         return PostDTO.builder()
-                .id(post.getId())
-                .content(post.getContent())
-                .user(post.getUser())
-                .images(post.getImages() != null ? post.getImages() : Collections.emptyList())
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
+                .id(post.id())
+                .content(post.content())
+                .user(post.author())
+                .images(images.getOrDefault(post.id(), Collections.emptyList()))
+                .createdAt(post.createdAt())
+                .updatedAt(post.updatedAt())
                 .likesCount(likesCount)
                 .liked(likedByCurrentUser)
                 .commentsCount(commentsCount)
+                .repostsCount(post.repostCount())
                 .originalPost(originalPostDto)
-                .isDeleted(post.isDeleted())
+                .isDeleted(post.deleted())
                 .build();
     }
 
-    public PostDTO toDTO(PostDocument postDocument, User user) {
-        if (postDocument == null) {
-            return null;
+    /**
+     * Id of the first post of the repost chain, or null if the post is not a repost.
+     * Reposts saved before roots were recorded fall back to the post they repost.
+     */
+    public static Long rootPostId(Post post) {
+        if (post.getRootPostId() != null) {
+            return post.getRootPostId();
         }
+        return post.getOriginalPost() != null ? post.getOriginalPost().getId() : null;
+    }
 
-        boolean likedByCurrentUser = false;
-        if (user != null) {
-            Post post = postRepository.findById(Long.parseLong(postDocument.getId()))
-                    .orElse(null);
-            likedByCurrentUser = likeRepository.findByUserAndPost(user, post).isPresent();
+    /**
+     * Builds a search result from the document alone.
+     *
+     * @param postDocument Search hit
+     * @param likedByCurrentUser Whether the viewer liked the post, looked up in batch by the caller
+     */
+    public PostDTO toDTO(PostDocument postDocument, boolean likedByCurrentUser) {
+        if (postDocument == null) {
+            return null;
         }
 
-        long likesCount = likeRepository.countByPostId(Long.parseLong(postDocument.getId()));
-        long commentsCount = commentRepository.countByPostId(Long.parseLong(postDocument.getId()));
-
         PostDTO originalPostDto = null;
-        if (postDocument.getOriginalPostId() != null) {
-            Post originalPost = postRepository.findById(Long.parseLong(postDocument.getOriginalPostId()))
-                    .orElse(null);
-            originalPostDto = toDto(originalPost, user);
+        RepostSummary original = postDocument.getOriginalPost();
+        if (original != null) {
+            PostDTO.PostDTOBuilder builder = PostDTO.builder()
+                    .id(original.getId())
+                    .user(toUser(original.getAuthor()))
+                    .isDeleted(original.isDeleted())
+                    .createdAt(original.getCreatedAt());
+            // Bài gốc đã xóa chỉ giữ thông tin cơ bản, giống toDto
+            if (!original.isDeleted()) {
+                builder.content(original.getContent())
+                        .images(original.getImages() != null ? original.getImages() : Collections.emptyList());
+            }
+            originalPostDto = builder.build();
         }
 
         return PostDTO.builder()
                 .id(Long.parseLong(postDocument.getId()))
                 .content(postDocument.getContent())
-                .user(user)
+                .user(toUser(postDocument.getAuthor()))
+                .images(postDocument.getImages() != null ? postDocument.getImages() : Collections.emptyList())
                 .createdAt(postDocument.getCreatedAt())
-                .updatedAt(postDocument.getUpdatedAt() != null ? postDocument.getUpdatedAt() : null)
+                .updatedAt(postDocument.getUpdatedAt())
                 .originalPost(originalPostDto)
                 .isDeleted(postDocument.isDeleted())
                 .liked(likedByCurrentUser)
-                .likesCount(likesCount)
-                .commentsCount(commentsCount)
+                .likesCount(postDocument.getLikeCount())
+                .commentsCount(postDocument.getCommentCount())
+                .repostsCount(postDocument.getRepostCount())
                 .build();
     }
 
     public PostDocument toDocument(Post post) {
+        return toDocument(post, post.getOriginalPost(), post.getLikeCount(), post.getTotalCommentCount());
+    }
+
+    /**
+     * Builds the search document with author, images and original post copied in.
+     *
+     * @param post Post with user and images loaded
+     * @param root First post of the repost chain with user and images loaded, or null
+     * @param likeCount Current like count
+     * @param commentCount Current comment count
+     */
+    public PostDocument toDocument(Post post, Post root, long likeCount, long commentCount) {
         PostDocument postDocument = new PostDocument();
         postDocument.setId(post.getId().toString());
         postDocument.setContent(post.getContent());
         postDocument.setUserId(post.getUser().getId().toString());
+        postDocument.setAuthor(toAuthorSummary(post.getUser()));
+        postDocument.setImages(toImageSummaries(post.getImages()));
         postDocument.setCreatedAt(post.getCreatedAt());
         postDocument.setUpdatedAt(post.getUpdatedAt() != null ? post.getUpdatedAt() : null);
-        postDocument.setOriginalPostId(post.getOriginalPost() != null ? post.getOriginalPost().getId().toString() : null);
-        postDocument.setIsDeleted(post.isDeleted());
-        postDocument.setLikedByCurrentUser(post.isLikedByCurrentUser());
-        postDocument.setLikeCount(post.getLikeCount());
-        postDocument.setTotalCommentCount(post.getTotalCommentCount());
+        postDocument.setOriginalPostId(root != null ? root.getId().toString() : null);
+        postDocument.setOriginalPost(toRepostSummary(root));
+        postDocument.setDeleted(post.isDeleted());
+        postDocument.setLikeCount(likeCount);
+        postDocument.setCommentCount(commentCount);
+        postDocument.setRepostCount(post.getRepostCount());
         return postDocument;
     }
+
+    public AuthorSummary toAuthorSummary(User user) {
+        if (user == null) {
+            return null;
+        }
+        return AuthorSummary.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .avatar(user.getAvatar())
+                .avatarThumbnail(user.getAvatarThumbnail())
+                .build();
+    }
+
+    private RepostSummary toRepostSummary(Post original) {
+        if (original == null) {
+            return null;
+        }
+        return RepostSummary.builder()
+                .id(original.getId())
+                .content(original.getContent())
+                .author(toAuthorSummary(original.getUser()))
+                .images(toImageSummaries(original.getImages()))
+                .createdAt(original.getCreatedAt())
+                .deleted(original.isDeleted())
+                .build();
+    }
+
+    // Chỉ chép các URL, bỏ tham chiếu ngược tới Post/Comment
+    private List<Image> toImageSummaries(List<Image> images) {
+        if (images == null || images.isEmpty()) {
+            return null;
+        }
+        return images.stream()
+                .map(image -> Image.builder()
+                        .id(image.getId())
+                        .url(image.getUrl())
+                        .thumbnailUrl(image.getThumbnailUrl())
+                        .mediumUrl(image.getMediumUrl())
+                        .build())
+                .toList();
+    }
+
+    private User toUser(AuthorSummary author) {
+        if (author == null) {
+            return null;
+        }
+        return UserMapper.toAuthor(author.getId(), author.getEmail(), author.getFirstName(), author.getLastName(),
+                author.getAvatar(), author.getAvatarThumbnail());
+    }
 }
@@ -20,10 +20,28 @@ public class UserMapper {
                 .lastName(user.getLastName())
                 .avatar(user.getAvatar())
                 .background(user.getBackground())
+                .avatarThumbnail(user.getAvatarThumbnail())
+                .backgroundMedium(user.getBackgroundMedium())
                 .bio(user.getBio())
                 .build();
     }
 
+    /**
+     * Author of a post or comment with only the columns shown next to it, as read by
+     * the projection queries.
+     */
+    public static User toAuthor(Long id, String email, String firstName, String lastName, String avatar,
+                                String avatarThumbnail) {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .avatar(avatar)
+                .avatarThumbnail(avatarThumbnail)
+                .build();
+    }
+
     public User toEntity(UserDTO userDTO) {
         if (userDTO == null) return null;
 
@@ -46,6 +64,7 @@ public class UserMapper {
         userDocument.setFirstName(user.getFirstName());
         userDocument.setLastName(user.getLastName());
         userDocument.setAvatar(user.getAvatar());
+        userDocument.setAvatarThumbnail(user.getAvatarThumbnail());
         userDocument.setBio(user.getBio());
         userDocument.setIsStaff(user.getIsStaff());
         userDocument.setIsSuperUser(user.getIsSuperUser());
@@ -0,0 +1,10 @@
+package org.example.backend.metrics;
+
+/**
+ * Thrown in strict mode when a request goes over its SQL budget.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
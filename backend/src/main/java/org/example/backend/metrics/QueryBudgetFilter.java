@@ -0,0 +1,134 @@
+package org.example.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the SQL statements of every HTTP request against a budget.
+ * Requests that run too many statements, spend too long in JDBC or repeat one statement
+ * shape (N+1) are logged with the call sites responsible. In strict mode, meant for tests,
+ * the statement that goes over the budget throws while the response can still report it,
+ * and the filter throws again once the request is done in case that exception was caught.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final int MAX_REPORTED_STATEMENTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final long maxTimeMillis;
+    private final int repeatThreshold;
+    private final boolean failOnExceed;
+
+    public QueryBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.query-budget.enabled:true}") boolean enabled,
+            @Value("${app.query-budget.max-statements:30}") int maxStatements,
+            @Value("${app.query-budget.max-time-ms:500}") long maxTimeMillis,
+            @Value("${app.query-budget.repeat-threshold:10}") int repeatThreshold,
+            @Value("${app.query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.maxTimeMillis = maxTimeMillis;
+        this.repeatThreshold = repeatThreshold;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryTracker.begin(maxStatements, repeatThreshold, maxTimeMillis, failOnExceed);
+        QueryStats stats;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats = QueryTracker.end().orElseGet(QueryStats::new);
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+
+        List<String> violations = violations(stats);
+        if (violations.isEmpty()) {
+            return;
+        }
+        meterRegistry.counter("http.server.sql.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+
+        String endpoint = request.getMethod() + " " + uri;
+        // Mã ứng dụng có thể đã bắt ngoại lệ ném từ câu lệnh vi phạm, nên ở đây luôn ném lại;
+        // báo cáo chi tiết đã nằm trong ngoại lệ đầu tiên nên không dựng lại
+        if (failOnExceed && stats.isFailed()) {
+            throw new QueryBudgetExceededException(
+                    "Query budget exceeded for " + endpoint + ": " + String.join("; ", violations));
+        }
+        String report = report(endpoint, stats, violations);
+        if (failOnExceed) {
+            throw new QueryBudgetExceededException(report);
+        }
+        log.warn(report);
+    }
+
+    private List<String> violations(QueryStats stats) {
+        List<String> violations = new ArrayList<>();
+        if (stats.getStatementCount() > maxStatements) {
+            violations.add(stats.getStatementCount() + " statements > budget " + maxStatements);
+        }
+        if (stats.getTotalMillis() > maxTimeMillis) {
+            violations.add(stats.getTotalMillis() + " ms in JDBC > budget " + maxTimeMillis + " ms");
+        }
+        if (!stats.repeatedStatements(repeatThreshold).isEmpty()) {
+            violations.add("statement repeated >= " + repeatThreshold + " times (N+1)");
+        }
+        return violations;
+    }
+
+    private String report(String endpoint, QueryStats stats, List<String> violations) {
+        StringBuilder report = new StringBuilder("Query budget exceeded for ")
+                .append(endpoint).append(": ").append(String.join("; ", violations));
+
+        stats.repeatedStatements(repeatThreshold).entrySet().stream()
+                .limit(MAX_REPORTED_STATEMENTS)
+                .forEach(entry -> report.append("\n  x").append(entry.getValue())
+                        .append(" at ").append(stats.getCallSitesBySql().getOrDefault(entry.getKey(), "unknown"))
+                        .append(": ").append(QueryTracker.abbreviate(entry.getKey())));
+
+        for (Map.Entry<String, Integer> site : stats.getOverBudgetCallSites().entrySet()) {
+            report.append("\n  over budget: x").append(site.getValue()).append(" from ").append(site.getKey());
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sees every SQL statement Hibernate prepares and reports it to the current {@link QueryTracker}.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryTracker.onStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.backend.metrics;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * SQL statements executed while a {@link QueryTracker} scope was open.
+ * Statements are grouped by their SQL text; Hibernate renders parameters as
+ * placeholders, so repeated shapes are the signature of an N+1 loop.
+ */
+@Getter
+public class QueryStats {
+
+    private int statementCount;
+    private long totalNanos;
+    // Đã ném QueryBudgetExceededException trong scope này
+    private boolean failed;
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+    private final Map<String, String> callSitesBySql = new HashMap<>();
+    private final Map<String, Integer> overBudgetCallSites = new LinkedHashMap<>();
+
+    int recordStatement(String sql) {
+        statementCount++;
+        return countsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordExecution(long nanos) {
+        totalNanos += nanos;
+    }
+
+    /**
+     * Call site of a statement shape; the stack is walked only the first time the shape needs one.
+     */
+    String callSite(String sql, Supplier<String> callSite) {
+        return callSitesBySql.computeIfAbsent(sql, key -> callSite.get());
+    }
+
+    void recordOverBudgetCallSite(String callSite) {
+        overBudgetCallSites.merge(callSite, 1, Integer::sum);
+    }
+
+    void markFailed() {
+        failed = true;
+    }
+
+    public long getTotalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    /**
+     * Statement shapes executed at least {@code threshold} times, with the number of executions.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
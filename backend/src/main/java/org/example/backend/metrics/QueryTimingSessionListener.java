@@ -0,0 +1,33 @@
+package org.example.backend.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Measures JDBC execution time per session and reports it to the current {@link QueryTracker}.
+ * Hibernate creates one instance per session, and a session is used by one thread at a time.
+ */
+public class QueryTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryTracker.onExecution(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryTracker.onExecution(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.backend.metrics;
+
+import java.util.Optional;
+
+/**
+ * Thread-bound scope that collects {@link QueryStats}.
+ * Opened per HTTP request by {@link QueryBudgetFilter}; tests can open their own scope
+ * around a service call and assert on the result.
+ */
+public final class QueryTracker {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String APP_PACKAGE = "org.example.backend.";
+    private static final String OWN_PACKAGE = QueryTracker.class.getPackageName() + ".";
+
+    private QueryTracker() {
+    }
+
+    private record Scope(QueryStats stats, int statementBudget, int repeatThreshold, long timeBudgetNanos,
+                         boolean failOnExceed) {
+    }
+
+    /**
+     * Opens a scope on the current thread that only records.
+     *
+     * @param statementBudget Statements allowed before call sites are recorded
+     * @param repeatThreshold Repetitions of one statement shape that count as N+1
+     */
+    public static void begin(int statementBudget, int repeatThreshold) {
+        begin(statementBudget, repeatThreshold, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Opens a scope on the current thread.
+     *
+     * @param timeBudgetMillis JDBC time allowed, checked as each statement is prepared
+     * @param failOnExceed Whether the statement that goes over a budget throws
+     *                     {@link QueryBudgetExceededException}, while the response can still
+     *                     report the failure
+     */
+    public static void begin(int statementBudget, int repeatThreshold, long timeBudgetMillis, boolean failOnExceed) {
+        long timeBudgetNanos = timeBudgetMillis >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE
+                : timeBudgetMillis * 1_000_000;
+        CURRENT.set(new Scope(new QueryStats(), statementBudget, repeatThreshold, timeBudgetNanos, failOnExceed));
+    }
+
+    /**
+     * Closes the scope on the current thread.
+     *
+     * @return The collected stats, or empty if no scope was open
+     */
+    public static Optional<QueryStats> end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return Optional.ofNullable(scope).map(Scope::stats);
+    }
+
+    static void onStatement(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        QueryStats stats = scope.stats();
+        int repeats = stats.recordStatement(sql);
+        boolean repeated = repeats >= scope.repeatThreshold();
+        boolean overBudget = stats.getStatementCount() > scope.statementBudget();
+        // Chỉ lấy call site khi cần (vượt ngân sách hoặc lặp) và mỗi dạng câu lệnh chỉ một lần
+        if (repeated || overBudget) {
+            String site = stats.callSite(sql, QueryTracker::callSite);
+            if (overBudget) {
+                stats.recordOverBudgetCallSite(site);
+            }
+        }
+
+        if (scope.failOnExceed() && !stats.isFailed()) {
+            failIfExceeded(scope, sql, repeats);
+        }
+    }
+
+    // Ném ngay tại câu lệnh vi phạm, lúc phản hồi chưa được gửi đi; mỗi scope chỉ ném một lần
+    private static void failIfExceeded(Scope scope, String sql, int repeats) {
+        QueryStats stats = scope.stats();
+        String violation;
+        if (stats.getStatementCount() > scope.statementBudget()) {
+            violation = stats.getStatementCount() + " statements > budget " + scope.statementBudget();
+        } else if (repeats >= scope.repeatThreshold()) {
+            violation = "statement repeated " + repeats + " times (N+1)";
+        } else if (stats.getTotalNanos() > scope.timeBudgetNanos()) {
+            violation = stats.getTotalMillis() + " ms in JDBC > budget " + scope.timeBudgetNanos() / 1_000_000 + " ms";
+        } else {
+            return;
+        }
+        stats.markFailed();
+        throw new QueryBudgetExceededException("Query budget exceeded: " + violation + " at "
+                + stats.callSite(sql, QueryTracker::callSite) + ": " + abbreviate(sql));
+    }
+
+    static String abbreviate(String sql) {
+        String compact = sql.replaceAll("\\s+", " ");
+        return compact.length() > 160 ? compact.substring(0, 157) + "..." : compact;
+    }
+
+    static void onExecution(long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.stats().recordExecution(nanos);
+        }
+    }
+
+    /**
+     * First application frame outside this package, e.g. {@code PostMapper.toDto:57}.
+     */
+    private static String callSite() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().startsWith(OWN_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(APP_PACKAGE.length())
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.backend.metrics;
+
+/**
+ * Counts Spring Data repository invocations made by the current request thread.
+ */
+public final class RepositoryCallCounter {
+
+    private static final ThreadLocal<int[]> CALLS = new ThreadLocal<>();
+
+    private RepositoryCallCounter() {
+    }
+
+    /**
+     * Starts counting for the current thread.
+     */
+    public static void begin() {
+        CALLS.set(new int[1]);
+    }
+
+    /**
+     * Records one repository invocation if counting is active.
+     */
+    public static void increment() {
+        int[] calls = CALLS.get();
+        if (calls != null) {
+            calls[0]++;
+        }
+    }
+
+    /**
+     * Stops counting and returns the number of calls seen since {@link #begin()}.
+     */
+    public static int end() {
+        int[] calls = CALLS.get();
+        CALLS.remove();
+        return calls != null ? calls[0] : 0;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.backend.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Hooks a listener into every Spring Data repository so each invocation is counted
+ * against the request that made it.
+ */
+@Configuration
+public class RepositoryCallMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryCallCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addInvocationListener(invocation -> RepositoryCallCounter.increment()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Elasticsearch indexing meters.
+ * {@code search.indexing.duration} is the time spent in the index call itself;
+ * {@code search.indexing.lag} is the time from the entity change to the document
+ * being written, which is what users notice as stale search results.
+ */
+@Component
+public class SearchIndexMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public SearchIndexMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs an index write and records its duration and outcome.
+     *
+     * @param index Logical index name, e.g. "posts"
+     * @param changedAt When the source entity changed, or null if unknown
+     * @param write The index write
+     * @return The write's result
+     */
+    public <T> T record(String index, Instant changedAt, Supplier<T> write) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("search.indexing.duration")
+                    .tag("index", index)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            if (changedAt != null && "success".equals(outcome)) {
+                Timer.builder("search.indexing.lag")
+                        .tag("index", index)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(Duration.between(changedAt, Instant.now()));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket session and STOMP message meters.
+ * Registered on both client channels, so rates can be derived for inbound frames
+ * (SEND, SUBSCRIBE, ...) and outbound MESSAGE frames separately.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Counter sessionsOpened;
+    private final Counter sessionsClosed;
+
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+                .description("Currently connected STOMP sessions")
+                .register(meterRegistry);
+        this.sessionsOpened = Counter.builder("websocket.sessions.opened").register(meterRegistry);
+        this.sessionsClosed = Counter.builder("websocket.sessions.closed").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        activeSessions.incrementAndGet();
+        sessionsOpened.increment();
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        activeSessions.updateAndGet(count -> Math.max(0, count - 1));
+        sessionsClosed.increment();
+    }
+
+    /**
+     * Interceptor for the client inbound channel.
+     */
+    public ChannelInterceptor inboundInterceptor() {
+        return countingInterceptor("inbound");
+    }
+
+    /**
+     * Interceptor for the client outbound channel.
+     */
+    public ChannelInterceptor outboundInterceptor() {
+        return countingInterceptor("outbound");
+    }
+
+    private ChannelInterceptor countingInterceptor(String direction) {
+        return new ChannelInterceptor() {
+            @Override
+            public void afterSendCompletion(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                            boolean sent, Exception ex) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                StompCommand command = accessor != null ? accessor.getCommand() : null;
+                meterRegistry.counter("websocket.messages",
+                        "direction", direction,
+                        "command", command != null ? command.name() : "OTHER",
+                        "outcome", sent && ex == null ? "success" : "failure").increment();
+            }
+        };
+    }
+}
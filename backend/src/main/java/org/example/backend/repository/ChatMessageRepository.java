@@ -1,12 +1,15 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.UrlReferenceCount;
 import org.example.backend.entity.ChatMessage;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,6 +29,7 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
          * @param pageable Pagination and sorting information
          * @return List of messages between the two users
          */
+        @EntityGraph(attributePaths = {"sender", "receiver"})
         @Query("SELECT m FROM ChatMessage m WHERE " +
                 "(m.sender.id = :user1 AND m.receiver.id = :user2) OR " +
                 "(m.sender.id = :user2 AND m.receiver.id = :user1) " +
@@ -42,6 +46,7 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
          * @param userId The user ID
          * @return List of messages where the user is involved
          */
+        @EntityGraph(attributePaths = {"sender", "receiver"})
         @Query("SELECT m FROM ChatMessage m WHERE " +
                 "m.sender.id = :userId OR m.receiver.id = :userId " +
                 "ORDER BY m.timestamp DESC")
@@ -83,4 +88,13 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
          */
         @Query("SELECT c FROM ChatMessage c WHERE c.receiver.id = :receiverId AND c.sender.id = :senderId AND c.isRead = false")
         List<ChatMessage> findByReceiverIdAndSenderIdAndIsReadFalse(@Param("receiverId") String receiverId, @Param("senderId") String senderId);
-}
\ No newline at end of file
+
+        /**
+         * Counts the messages attaching each of the given file URLs.
+         *
+         * @param urls File URLs to look up
+         * @return One row per URL that is referenced at least once
+         */
+        @Query("SELECT m.fileUrl AS url, COUNT(m) AS count FROM ChatMessage m WHERE m.fileUrl IN :urls GROUP BY m.fileUrl")
+        List<UrlReferenceCount> countReferencesByFileUrl(@Param("urls") Collection<String> urls);
+}
@@ -1,12 +1,21 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.AdminCommentRow;
+import org.example.backend.dto.CommentRow;
+import org.example.backend.dto.PostCount;
 import org.example.backend.entity.Comment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Remove or modify this method as it's fetching all comments
@@ -14,8 +23,28 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     @Query(value = "SELECT COUNT(*) FROM comments WHERE post_id = :postId", nativeQuery = true)
     Long countByPostId(Long postId);
+
+    @Query("SELECT c.post.id AS postId, COUNT(c) AS count FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<PostCount> countByPostIds(@Param("postIds") Collection<Long> postIds);
     
-    List<Comment> findByPostIdAndParentCommentIsNullOrderByCreatedAtAsc(Long postId);
+    String COMMENT_ROW = "SELECT new org.example.backend.dto.CommentRow(c.id, c.content, c.post.id, " +
+            "c.parentComment.id, c.createdAt, c.updatedAt, u.id, u.email, u.firstName, u.lastName, u.avatar, " +
+            "u.avatarThumbnail) FROM Comment c JOIN c.user u ";
+
+    /**
+     * Every comment of a post, replies included, oldest first.
+     */
+    @Query(COMMENT_ROW + "WHERE c.post.id = :postId ORDER BY c.createdAt, c.id")
+    List<CommentRow> findRowsByPostId(@Param("postId") Long postId);
+
+    @Query(COMMENT_ROW + "WHERE c.id IN :ids")
+    List<CommentRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Direct replies of the given comments, for walking a subtree one level at a time.
+     */
+    @Query(COMMENT_ROW + "WHERE c.parentComment.id IN :parentIds")
+    List<CommentRow> findRowsByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
 
     @Query("SELECT COUNT(c) FROM Comment c")
     Long countAll();
@@ -24,4 +53,30 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     Optional<Comment> findByIdAndIsDeletedFalse(Long id);
     Long countByPostIdAndIsDeletedFalse(Long postId);
     Long countByIsDeletedTrue();
+
+    String ADMIN_COMMENT_FILTER = "WHERE c.id > :afterId " +
+            "AND (:keyword IS NULL OR LOWER(c.content) LIKE :keyword) " +
+            "AND (:postId IS NULL OR c.post.id = :postId) " +
+            "AND (:from IS NULL OR c.createdAt >= :from) " +
+            "AND (:to IS NULL OR c.createdAt < :to)";
+
+    String ADMIN_COMMENT_ROWS = "SELECT new org.example.backend.dto.AdminCommentRow(c.id, c.post.id, c.parentComment.id, " +
+            "u.id, u.email, c.content, c.isDeleted, c.createdAt) " +
+            "FROM Comment c JOIN c.user u " + ADMIN_COMMENT_FILTER;
+
+    /**
+     * Finds comments for the admin list. Null filters are ignored.
+     */
+    @Query(value = ADMIN_COMMENT_ROWS, countQuery = "SELECT COUNT(c) FROM Comment c " + ADMIN_COMMENT_FILTER)
+    Page<AdminCommentRow> findAdminCommentRows(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                               @Param("postId") Long postId, @Param("from") Date from,
+                                               @Param("to") Date to, Pageable pageable);
+
+    /**
+     * Keyset batch for exports: rows with id above afterId, ordered by id, without a count query.
+     */
+    @Query(ADMIN_COMMENT_ROWS + " ORDER BY c.id")
+    List<AdminCommentRow> findAdminCommentRowsAfter(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                                    @Param("postId") Long postId, @Param("from") Date from,
+                                                    @Param("to") Date to, Pageable pageable);
 }
@@ -3,9 +3,13 @@ package org.example.backend.repository;
 import org.example.backend.entity.Friendship;
 import org.example.backend.entity.Friendship.FriendshipStatus;
 import org.example.backend.entity.User;
+import org.example.backend.dto.UserCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +51,33 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
 
     // Count by receiver and status
     long countByReceiverAndStatus(User receiver, FriendshipStatus status);
-}
\ No newline at end of file
+
+    // Id của người trong otherIds có quan hệ với user ở trạng thái cho trước
+    @Query("SELECT CASE WHEN f.requester.id = :userId THEN f.receiver.id ELSE f.requester.id END " +
+            "FROM Friendship f WHERE ((f.requester.id = :userId AND f.receiver.id IN :otherIds) " +
+            "OR (f.receiver.id = :userId AND f.requester.id IN :otherIds)) " +
+            "AND f.status = :status AND f.active = true")
+    List<Long> findOtherUserIdsAmong(@Param("userId") Long userId, @Param("otherIds") Collection<Long> otherIds,
+                                     @Param("status") FriendshipStatus status);
+
+    // Bạn của viewer, để đếm bạn chung bằng truy vấn con thay vì truyền cả danh sách bạn vào IN
+    String VIEWER_FRIENDS = "(SELECT CASE WHEN g.requester.id = :viewerId THEN g.receiver.id ELSE g.requester.id END " +
+            "FROM Friendship g WHERE (g.requester.id = :viewerId OR g.receiver.id = :viewerId) " +
+            "AND g.status = :status AND g.active = true)";
+
+    // Số bạn chung với viewer của mỗi user trong userIds, tính trên các quan hệ user đó đã gửi
+    @Query("SELECT f.requester.id AS userId, COUNT(f) AS count FROM Friendship f " +
+            "WHERE f.requester.id IN :userIds AND f.receiver.id IN " + VIEWER_FRIENDS + " " +
+            "AND f.status = :status AND f.active = true GROUP BY f.requester.id")
+    List<UserCount> countMutualByRequesterIds(@Param("viewerId") Long viewerId,
+                                              @Param("userIds") Collection<Long> userIds,
+                                              @Param("status") FriendshipStatus status);
+
+    // Như trên, tính trên các quan hệ user đó đã nhận
+    @Query("SELECT f.receiver.id AS userId, COUNT(f) AS count FROM Friendship f " +
+            "WHERE f.receiver.id IN :userIds AND f.requester.id IN " + VIEWER_FRIENDS + " " +
+            "AND f.status = :status AND f.active = true GROUP BY f.receiver.id")
+    List<UserCount> countMutualByReceiverIds(@Param("viewerId") Long viewerId,
+                                             @Param("userIds") Collection<Long> userIds,
+                                             @Param("status") FriendshipStatus status);
+}
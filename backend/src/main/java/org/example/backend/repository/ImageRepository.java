@@ -1,14 +1,20 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.ImageRow;
+import org.example.backend.dto.UrlReferenceCount;
 import org.example.backend.entity.Image;
 import org.example.backend.entity.Post;
 import org.example.backend.entity.Comment;
 import org.example.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository; // Add Repository annotation
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository // Add Repository annotation
@@ -20,7 +26,30 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     @Query("SELECT i FROM Image i WHERE i.post IS NOT NULL AND i.post.user = :user ORDER BY i.post.createdAt DESC")
     List<Image> findImagesByPostAndUser(User user, Pageable pageable);
     
+    @Query("SELECT new org.example.backend.dto.ImageRow(i.post.id, i.id, i.url, i.thumbnailUrl, i.mediumUrl) " +
+            "FROM Image i WHERE i.post.id IN :postIds ORDER BY i.id")
+    List<ImageRow> findRowsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT new org.example.backend.dto.ImageRow(i.comment.id, i.id, i.url, i.thumbnailUrl, i.mediumUrl) " +
+            "FROM Image i WHERE i.comment.id IN :commentIds ORDER BY i.id")
+    List<ImageRow> findRowsByCommentIdIn(@Param("commentIds") Collection<Long> commentIds);
+
     // Find images by a list of URLs
     List<Image> findByUrlIn(List<String> urls);
-    
+
+    // Đếm số ảnh đang dùng từng URL, phục vụ dọn blob không còn tham chiếu
+    @Query("SELECT i.url AS url, COUNT(i) AS count FROM Image i WHERE i.url IN :urls GROUP BY i.url")
+    List<UrlReferenceCount> countReferencesByUrl(@Param("urls") Collection<String> urls);
+
+    // Bài viết có ảnh dùng URL gốc này, để đánh chỉ mục lại sau khi có biến thể
+    @Query("SELECT DISTINCT i.post.id FROM Image i WHERE i.url = :url AND i.post IS NOT NULL")
+    List<Long> findPostIdsByUrl(@Param("url") String url);
+
+    // Ghi lại các biến thể đã tạo cho mọi ảnh dùng chung URL gốc
+    @Modifying
+    @Transactional
+    @Query("UPDATE Image i SET i.thumbnailUrl = :thumbnailUrl, i.mediumUrl = :mediumUrl WHERE i.url = :url")
+    int updateVariants(@Param("url") String url,
+                       @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("mediumUrl") String mediumUrl);
 }
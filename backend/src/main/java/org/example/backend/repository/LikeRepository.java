@@ -1,13 +1,19 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.LikerRow;
+import org.example.backend.dto.PostCount;
+import org.example.backend.dto.UserDTO;
 import org.example.backend.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.example.backend.entity.Comment;
 import org.example.backend.entity.Post;
 import org.example.backend.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +25,26 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     Long countByPostId(Long postId);
     List<Like> findByCommentId(Long commentId);
     List<Like> findByPostId(Long postId);
+
+    @Query("SELECT l.post.id AS postId, COUNT(l) AS count FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
+    List<PostCount> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Returns which of the given posts the user has liked, in one query.
+     */
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    String USER_DTO = "SELECT DISTINCT new org.example.backend.dto.UserDTO(u.id, u.email, u.firstName, u.lastName, " +
+            "u.avatar, u.background, u.avatarThumbnail, u.backgroundMedium, u.bio) FROM Like l JOIN l.user u ";
+
+    @Query(USER_DTO + "WHERE l.post.id = :postId")
+    List<UserDTO> findUserDtosByPostId(@Param("postId") Long postId);
+
+    @Query(USER_DTO + "WHERE l.comment.id = :commentId")
+    List<UserDTO> findUserDtosByCommentId(@Param("commentId") Long commentId);
+
+    @Query("SELECT new org.example.backend.dto.LikerRow(l.comment.id, u.id, u.email, u.firstName, u.lastName, " +
+            "u.avatar, u.avatarThumbnail) FROM Like l JOIN l.user u WHERE l.comment.id IN :commentIds")
+    List<LikerRow> findLikersByCommentIdIn(@Param("commentIds") Collection<Long> commentIds);
 }
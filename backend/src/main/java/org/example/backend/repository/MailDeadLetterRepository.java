@@ -0,0 +1,9 @@
+package org.example.backend.repository;
+
+import org.example.backend.entity.MailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetter, Long> {
+}
@@ -0,0 +1,39 @@
+package org.example.backend.repository;
+
+import org.example.backend.entity.MailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Finds ids of mails that are due and not held by another dispatcher, oldest first.
+     */
+    @Query("SELECT m.id FROM MailOutbox m WHERE m.nextAttemptAt <= :now " +
+            "AND (m.lockedUntil IS NULL OR m.lockedUntil < :now) ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims the given mails for one dispatch round. Rows claimed concurrently by another
+     * instance are skipped by the lock condition.
+     *
+     * @return Number of claimed rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutbox m SET m.claimToken = :token, m.lockedUntil = :until " +
+            "WHERE m.id IN :ids AND (m.lockedUntil IS NULL OR m.lockedUntil < :now)")
+    int claim(@Param("ids") List<Long> ids, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    List<MailOutbox> findByClaimToken(String claimToken);
+}
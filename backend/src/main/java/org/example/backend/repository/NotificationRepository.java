@@ -5,8 +5,13 @@ import org.example.backend.entity.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,5 +19,26 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByReceiverIdOrderByCreatedAtDesc(Long receiverId);
     Page<Notification> findByReceiverIdOrderByCreatedAtDesc(Long receiverId, Pageable pageable);
     Notification findBySenderIdAndReceiverIdAndType(Long senderId, Long receiverId, NotificationType type);
-}
 
+    // Đánh dấu đã đọc bằng một câu UPDATE thay vì tải và ghi lại từng dòng
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiverId = :receiverId AND n.isRead = false")
+    int markAllAsReadByReceiverId(@Param("receiverId") Long receiverId);
+
+    // Id các thông báo đã đọc và cũ hơn mốc thời gian, dùng cho job dọn dẹp theo lô
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Người nhận có số thông báo vượt quá giới hạn
+    @Query("SELECT n.receiverId FROM Notification n GROUP BY n.receiverId HAVING COUNT(n) > :cap")
+    List<Long> findReceiverIdsWithMoreThan(@Param("cap") long cap);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.receiverId = :receiverId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Long> findIdsByReceiverIdNewestFirst(@Param("receiverId") Long receiverId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
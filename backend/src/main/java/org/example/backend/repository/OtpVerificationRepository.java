@@ -1,11 +1,29 @@
 package org.example.backend.repository;
 
 import org.example.backend.entity.OtpVerification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface OtpVerificationRepository extends JpaRepository<OtpVerification, Long> {
     Optional<OtpVerification> findByEmailAndOtpAndUsedFalse(String email, String otp);
+
+    /**
+     * Finds ids of OTPs that expired before the given time, used or not.
+     */
+    @Query("SELECT o.id FROM OtpVerification o WHERE o.expirationTime < :now")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OtpVerification o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
 
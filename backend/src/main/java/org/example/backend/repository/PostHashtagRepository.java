@@ -0,0 +1,38 @@
+package org.example.backend.repository;
+
+import org.example.backend.entity.PostHashtag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostHashtagRepository extends JpaRepository<PostHashtag, Long> {
+
+    List<PostHashtag> findByPostId(Long postId);
+
+    List<PostHashtag> findByPostIdIn(Collection<Long> postIds);
+
+    // Dùng index (tag, postId); id bài tăng dần nên sắp theo id cũng là mới nhất trước
+    @Query(value = "SELECT h.postId FROM PostHashtag h JOIN Post p ON p.id = h.postId " +
+            "WHERE h.tag = :tag AND p.isDeleted = false ORDER BY h.postId DESC",
+            countQuery = "SELECT COUNT(h) FROM PostHashtag h JOIN Post p ON p.id = h.postId " +
+                    "WHERE h.tag = :tag AND p.isDeleted = false")
+    Page<Long> findVisiblePostIds(@Param("tag") String tag, Pageable pageable);
+
+    // Hashtag của các bài đang hiển thị trong cửa sổ trending, để dựng lại bộ đếm khi khởi động
+    @Query("SELECT h FROM PostHashtag h JOIN Post p ON p.id = h.postId " +
+            "WHERE h.createdAt >= :since AND p.isDeleted = false")
+    List<PostHashtag> findVisibleSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM PostHashtag h WHERE h.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+}
@@ -0,0 +1,31 @@
+package org.example.backend.repository;
+
+import org.example.backend.entity.PostMention;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostMentionRepository extends JpaRepository<PostMention, Long> {
+
+    List<PostMention> findByPostId(Long postId);
+
+    List<PostMention> findByPostIdIn(Collection<Long> postIds);
+
+    @Query(value = "SELECT m.postId FROM PostMention m JOIN Post p ON p.id = m.postId " +
+            "WHERE m.userId = :userId AND p.isDeleted = false ORDER BY m.postId DESC",
+            countQuery = "SELECT COUNT(m) FROM PostMention m JOIN Post p ON p.id = m.postId " +
+                    "WHERE m.userId = :userId AND p.isDeleted = false")
+    Page<Long> findVisiblePostIds(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PostMention m WHERE m.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+}
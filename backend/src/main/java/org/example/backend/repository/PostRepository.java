@@ -1,28 +1,120 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.AdminPostRow;
+import org.example.backend.dto.PostRow;
+import org.example.backend.dto.RepostLink;
 import org.example.backend.entity.Post;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByUserId(Long userId);
-    List<Post> findByOriginalPostId(Long originalPostId);
     // Xóa các repost khi xóa bài gốc
     void deleteByOriginalPostId(Long originalPostId);
-    List<Post> findByIsDeletedFalse();
     Optional<Post> findByIdAndIsDeletedFalse(Long id);
     List<Post> findByUserIdAndIsDeletedFalse(Long userId);
-    
-    Page<Post> findByIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p")
+    List<Post> findAllWithUser();
+
+    /**
+     * Posts with author and images fetched, for building search documents.
+     */
+    @EntityGraph(attributePaths = {"user", "images"})
+    @Query("SELECT DISTINCT p FROM Post p WHERE p.id IN :ids")
+    List<Post> findWithUserAndImagesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cột PostDTO cần, đọc bằng constructor thay vì nạp entity
+    String POST_ROW = "SELECT new org.example.backend.dto.PostRow(p.id, p.content, p.createdAt, p.updatedAt, " +
+            "p.isDeleted, p.repostCount, p.originalPost.id, p.rootPostId, u.id, u.email, u.firstName, u.lastName, " +
+            "u.avatar, u.avatarThumbnail) FROM Post p JOIN p.user u ";
+
+    @Query(value = POST_ROW + "WHERE p.isDeleted = false ORDER BY p.createdAt DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.isDeleted = false")
+    Page<PostRow> findVisibleRows(Pageable pageable);
+
+    @Query(POST_ROW + "WHERE p.isDeleted = false")
+    List<PostRow> findAllVisibleRows();
+
+    @Query(POST_ROW + "WHERE u.id = :userId AND p.isDeleted = false ORDER BY p.createdAt DESC")
+    List<PostRow> findVisibleRowsByUserId(@Param("userId") Long userId);
+
+    @Query(POST_ROW + "WHERE p.rootPostId = :rootPostId AND p.isDeleted = false ORDER BY p.createdAt DESC")
+    List<PostRow> findVisibleRowsByRootPostId(@Param("rootPostId") Long rootPostId, Pageable pageable);
+
+    @Query(POST_ROW + "WHERE p.id IN :ids")
+    List<PostRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT COUNT(p) FROM Post p")
     Long countAll();
     Long countByIsDeletedTrue();
-}
\ No newline at end of file
+
+    @Query("SELECT p.id FROM Post p WHERE p.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.rootPostId = :rootPostId")
+    List<Long> findIdsByRootPostId(@Param("rootPostId") Long rootPostId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.repostCount = p.repostCount + :delta WHERE p.id = :postId")
+    int addRepostCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    boolean existsByOriginalPostIsNotNullAndRootPostIdIsNull();
+
+    @Query("SELECT new org.example.backend.dto.RepostLink(p.id, p.originalPost.id, p.rootPostId, p.isDeleted) " +
+            "FROM Post p WHERE p.originalPost IS NOT NULL")
+    List<RepostLink> findRepostLinks();
+
+    @Modifying
+    @Query("UPDATE Post p SET p.rootPostId = :rootPostId WHERE p.id IN :ids")
+    int setRootPostId(@Param("rootPostId") Long rootPostId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.repostCount = :count WHERE p.id = :postId")
+    int setRepostCount(@Param("postId") Long postId, @Param("count") long count);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    String ADMIN_POST_FILTER = "WHERE p.id > :afterId " +
+            "AND (:keyword IS NULL OR LOWER(p.content) LIKE :keyword) " +
+            "AND (:deleted IS NULL OR p.isDeleted = :deleted) " +
+            "AND (:userId IS NULL OR p.user.id = :userId) " +
+            "AND (:from IS NULL OR p.createdAt >= :from) " +
+            "AND (:to IS NULL OR p.createdAt < :to)";
+
+    String ADMIN_POST_ROWS = "SELECT new org.example.backend.dto.AdminPostRow(p.id, u.id, u.email, u.firstName, u.lastName, " +
+            "p.content, p.originalPost.id, p.isDeleted, p.createdAt, " +
+            "(SELECT COUNT(l) FROM Like l WHERE l.post = p), " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.post = p)) " +
+            "FROM Post p JOIN p.user u " + ADMIN_POST_FILTER;
+
+    /**
+     * Finds posts for the admin list with like and comment counts. Null filters are ignored.
+     */
+    @Query(value = ADMIN_POST_ROWS, countQuery = "SELECT COUNT(p) FROM Post p " + ADMIN_POST_FILTER)
+    Page<AdminPostRow> findAdminPostRows(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                         @Param("deleted") Boolean deleted, @Param("userId") Long userId,
+                                         @Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    /**
+     * Keyset batch for exports: rows with id above afterId, ordered by id, without a count query.
+     */
+    @Query(ADMIN_POST_ROWS + " ORDER BY p.id")
+    List<AdminPostRow> findAdminPostRowsAfter(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                              @Param("deleted") Boolean deleted, @Param("userId") Long userId,
+                                              @Param("from") Date from, @Param("to") Date to, Pageable pageable);
+}
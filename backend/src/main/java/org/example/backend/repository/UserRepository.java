@@ -1,13 +1,18 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.AdminUserRow;
+import org.example.backend.dto.UrlReferenceCount;
 import org.example.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,4 +48,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Long countAll();
 
     Long countByIsActiveFalse();
+
+    @Query("SELECT u.avatar AS url, COUNT(u) AS count FROM User u WHERE u.avatar IN :urls GROUP BY u.avatar")
+    List<UrlReferenceCount> countReferencesByAvatar(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT u.background AS url, COUNT(u) AS count FROM User u WHERE u.background IN :urls GROUP BY u.background")
+    List<UrlReferenceCount> countReferencesByBackground(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT u.id FROM User u WHERE u.avatar = :url")
+    List<Long> findIdsByAvatar(@Param("url") String url);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.avatarThumbnail = :thumbnailUrl WHERE u.avatar = :url")
+    int updateAvatarThumbnail(@Param("url") String url, @Param("thumbnailUrl") String thumbnailUrl);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.backgroundMedium = :mediumUrl WHERE u.background = :url")
+    int updateBackgroundMedium(@Param("url") String url, @Param("mediumUrl") String mediumUrl);
+
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findBatchAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.email IN :emails")
+    List<Long> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
+    String ADMIN_USER_ROWS = "SELECT new org.example.backend.dto.AdminUserRow(u.id, u.email, u.firstName, u.lastName, " +
+            "u.avatar, u.isActive, u.dateJoined, u.lastLogin) FROM User u " +
+            "WHERE u.isStaff = false AND u.id > :afterId " +
+            "AND (:keyword IS NULL OR LOWER(u.email) LIKE :keyword " +
+            "OR LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE :keyword) " +
+            "AND (:active IS NULL OR u.isActive = :active)";
+
+    /**
+     * Finds non-staff users for the admin list. Keyword is a lower-case LIKE pattern, null filters are ignored.
+     */
+    @Query(value = ADMIN_USER_ROWS,
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.isStaff = false AND u.id > :afterId " +
+                    "AND (:keyword IS NULL OR LOWER(u.email) LIKE :keyword " +
+                    "OR LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE :keyword) " +
+                    "AND (:active IS NULL OR u.isActive = :active)")
+    Page<AdminUserRow> findAdminUserRows(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                         @Param("active") Boolean active, Pageable pageable);
+
+    /**
+     * Keyset batch for exports: rows with id above afterId, ordered by id, without a count query.
+     */
+    @Query(ADMIN_USER_ROWS + " ORDER BY u.id")
+    List<AdminUserRow> findAdminUserRowsAfter(@Param("afterId") long afterId, @Param("keyword") String keyword,
+                                              @Param("active") Boolean active, Pageable pageable);
 }
@@ -0,0 +1,79 @@
+package org.example.backend.search;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.elasticsearch.repository.PostESRepository;
+import org.example.backend.elasticsearch.repository.UserESRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link SearchBackend} on the Elasticsearch repositories.
+ */
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchSearchBackend implements SearchBackend {
+
+    private final PostESRepository postESRepository;
+    private final UserESRepository userESRepository;
+
+    @Override
+    public Page<PostDocument> searchPosts(String keyword, boolean includeDeleted, Pageable pageable) {
+        return includeDeleted
+                ? postESRepository.searchByContent(keyword, pageable)
+                : postESRepository.searchVisibleByContent(keyword, pageable);
+    }
+
+    @Override
+    public List<PostDocument> findPosts(Collection<String> ids) {
+        return toList(postESRepository.findAllById(ids));
+    }
+
+    @Override
+    public void savePosts(Collection<PostDocument> documents) {
+        postESRepository.saveAll(documents);
+    }
+
+    @Override
+    public void deletePosts(Collection<String> ids) {
+        postESRepository.deleteAllById(ids);
+    }
+
+    @Override
+    public Page<UserDocument> searchUsers(String keyword, Boolean isStaff, Boolean isActive, Pageable pageable) {
+        return userESRepository.findByFullNameContainingIgnoreCaseAndIsStaffAndIsActive(keyword, isStaff, isActive,
+                pageable);
+    }
+
+    @Override
+    public List<UserDocument> suggestUsers(String prefix, int limit) {
+        return userESRepository.suggestByNamePrefix(prefix, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<UserDocument> findUsers(Collection<String> ids) {
+        return toList(userESRepository.findAllById(ids));
+    }
+
+    @Override
+    public void saveUsers(Collection<UserDocument> documents) {
+        if (documents.size() == 1) {
+            userESRepository.save(documents.iterator().next());
+        } else {
+            userESRepository.saveAll(documents);
+        }
+    }
+
+    private static <T> List<T> toList(Iterable<T> documents) {
+        List<T> list = new ArrayList<>();
+        documents.forEach(list::add);
+        return list;
+    }
+}
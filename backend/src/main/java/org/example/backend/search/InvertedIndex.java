@@ -0,0 +1,226 @@
+package org.example.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over one text field of a document type.
+ * Text is folded the way the vi_text analyzer does it (lowercase, accents stripped) and
+ * split into words; each word keeps a postings list of document id to term frequency.
+ * Every query word must match (like {@code operator: and}), and hits are scored with
+ * BM25. Documents are replaced or removed one at a time, so the index follows the same
+ * change feed as Elasticsearch.
+ */
+class InvertedIndex<T> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    record Hit<T>(String id, T document, double score) {
+    }
+
+    private record Indexed<T>(T document, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private final Function<T, String> idOf;
+    private final Function<T, String> textOf;
+    private final Map<String, Indexed<T>> documents = new HashMap<>();
+    // Sắp theo từ để tìm theo tiền tố bằng subMap
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    InvertedIndex(Function<T, String> idOf, Function<T, String> textOf) {
+        this.idOf = idOf;
+        this.textOf = textOf;
+    }
+
+    void put(T document) {
+        String id = idOf.apply(document);
+        List<String> terms = analyze(textOf.apply(document));
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        terms.forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            documents.put(id, new Indexed<>(document, termFrequencies, terms.size()));
+            termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+            totalLength += terms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<T> get(Collection<String> ids) {
+        lock.readLock().lock();
+        try {
+            List<T> found = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                Indexed<T> indexed = documents.get(id);
+                if (indexed != null) {
+                    found.add(indexed.document());
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every document passing the filter, unordered and with a zero score.
+     *
+     * @param filter Condition on the document
+     */
+    List<Hit<T>> all(Predicate<T> filter) {
+        lock.readLock().lock();
+        try {
+            List<Hit<T>> hits = new ArrayList<>();
+            documents.forEach((id, indexed) -> {
+                if (filter.test(indexed.document())) {
+                    hits.add(new Hit<>(id, indexed.document(), 0));
+                }
+            });
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching every word of the query, unordered.
+     *
+     * @param query Query text; one without any word matches nothing
+     * @param prefix Whether query words match as prefixes of indexed words
+     * @param filter Extra condition on the document
+     */
+    List<Hit<T>> search(String query, boolean prefix, Predicate<T> filter) {
+        List<String> words = analyze(query).stream().distinct().toList();
+        if (words.isEmpty()) {
+            // Truy vấn rỗng hoặc chỉ có dấu câu không khớp gì, tránh trả về cả chỉ mục
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            double averageLength = documents.isEmpty() ? 1 : Math.max(1, (double) totalLength / documents.size());
+            Map<String, Double> scores = null;
+            for (String word : words) {
+                Map<String, Double> wordScores = score(word, prefix, averageLength);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Mọi từ đều phải khớp: giữ phần giao và cộng điểm
+                    Map<String, Double> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<String, Double> entry : wordScores.entrySet()) {
+                        Double score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit<T>> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                T document = documents.get(id).document();
+                if (filter.test(document)) {
+                    hits.add(new Hit<>(id, document, score));
+                }
+            });
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // BM25 của một từ truy vấn; khi tìm theo tiền tố, mỗi tài liệu lấy từ khớp có điểm cao nhất
+    private Map<String, Double> score(String word, boolean prefix, double averageLength) {
+        Map<String, Map<String, Integer>> matching = prefix
+                ? postings.subMap(word, true, word + Character.MAX_VALUE, false)
+                : postings.containsKey(word) ? Map.of(word, postings.get(word)) : Map.of();
+        Map<String, Double> scores = new HashMap<>();
+        int total = documents.size();
+        for (Map<String, Integer> postingList : matching.values()) {
+            double idf = Math.log(1 + (total - postingList.size() + 0.5) / (postingList.size() + 0.5));
+            postingList.forEach((id, frequency) -> {
+                double normalizedLength = documents.get(id).length() / averageLength;
+                double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * normalizedLength));
+                scores.merge(id, score, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    private void unindex(String id) {
+        Indexed<T> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termFrequencies().keySet()) {
+            Map<String, Integer> postingList = postings.get(term);
+            postingList.remove(id);
+            if (postingList.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= previous.length();
+    }
+
+    /**
+     * Lowercases, strips accents and splits into words, so "Đà Nẵng" gives "da", "nang".
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
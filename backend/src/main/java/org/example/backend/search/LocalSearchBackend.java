@@ -0,0 +1,142 @@
+package org.example.backend.search;
+
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * {@link SearchBackend} on in-process {@link InvertedIndex}es.
+ * Post content is matched word by word like the Elasticsearch match query; user names
+ * are matched by word prefix, which covers both the "containing" search and typeahead.
+ * Results follow the requested sort, with BM25 relevance breaking ties and ordering
+ * unsorted queries. A blank user search lists every user passing the filters, as the
+ * contract asks; blank post searches and suggestions return nothing.
+ * Everything lives in memory, so this suits a fallback copy or a small
+ * deployment, not a large corpus.
+ */
+@Component
+public class LocalSearchBackend implements SearchBackend {
+
+    private static final Map<String, Comparator<PostDocument>> POST_SORTS = Map.of(
+            "createdAt", Comparator.comparing(PostDocument::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "updatedAt", Comparator.comparing(PostDocument::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "likeCount", Comparator.comparingLong(PostDocument::getLikeCount));
+    private static final Map<String, Comparator<UserDocument>> USER_SORTS = Map.of(
+            "lastLogin", Comparator.comparing(UserDocument::getLastLogin, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "dateJoined", Comparator.comparing(UserDocument::getDateJoined, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final InvertedIndex<PostDocument> posts = new InvertedIndex<>(PostDocument::getId, PostDocument::getContent);
+    private final InvertedIndex<UserDocument> users = new InvertedIndex<>(UserDocument::getId, UserDocument::getFullName);
+
+    @Override
+    public Page<PostDocument> searchPosts(String keyword, boolean includeDeleted, Pageable pageable) {
+        if (isBlank(keyword)) {
+            return Page.empty(pageable);
+        }
+        List<InvertedIndex.Hit<PostDocument>> hits = posts.search(keyword, false,
+                document -> includeDeleted || !document.isDeleted());
+        return page(hits, pageable, POST_SORTS);
+    }
+
+    @Override
+    public List<PostDocument> findPosts(Collection<String> ids) {
+        return posts.get(ids);
+    }
+
+    @Override
+    public void savePosts(Collection<PostDocument> documents) {
+        documents.forEach(posts::put);
+    }
+
+    @Override
+    public void deletePosts(Collection<String> ids) {
+        ids.forEach(posts::remove);
+    }
+
+    @Override
+    public Page<UserDocument> searchUsers(String keyword, Boolean isStaff, Boolean isActive, Pageable pageable) {
+        Predicate<UserDocument> filter = document -> (isStaff == null || isStaff.equals(document.getIsStaff()))
+                && (isActive == null || isActive.equals(document.getIsActive()));
+        // Không có từ khoá thì duyệt toàn bộ người dùng theo bộ lọc, như trang quản trị cần
+        List<InvertedIndex.Hit<UserDocument>> hits = isBlank(keyword)
+                ? users.all(filter)
+                : users.search(keyword, true, filter);
+        return page(hits, pageable, USER_SORTS);
+    }
+
+    @Override
+    public List<UserDocument> suggestUsers(String prefix, int limit) {
+        if (isBlank(prefix)) {
+            return List.of();
+        }
+        return users.search(prefix, true, document -> Boolean.TRUE.equals(document.getIsActive())).stream()
+                .sorted(byRelevance())
+                .limit(limit)
+                .map(InvertedIndex.Hit::document)
+                .toList();
+    }
+
+    @Override
+    public List<UserDocument> findUsers(Collection<String> ids) {
+        return users.get(ids);
+    }
+
+    @Override
+    public void saveUsers(Collection<UserDocument> documents) {
+        documents.forEach(users::put);
+    }
+
+    public int postCount() {
+        return posts.size();
+    }
+
+    public int userCount() {
+        return users.size();
+    }
+
+    private static boolean isBlank(String query) {
+        return query == null || query.isBlank();
+    }
+
+    private static <T> Page<T> page(List<InvertedIndex.Hit<T>> hits, Pageable pageable,
+                                    Map<String, Comparator<T>> sorts) {
+        List<T> sorted = hits.stream()
+                .sorted(comparator(pageable.getSort(), sorts))
+                .map(InvertedIndex.Hit::document)
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    private static <T> Comparator<InvertedIndex.Hit<T>> comparator(Sort sort, Map<String, Comparator<T>> sorts) {
+        Comparator<InvertedIndex.Hit<T>> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> field = sorts.get(order.getProperty());
+            if (field == null) {
+                // Trường không hỗ trợ sắp xếp thì bỏ qua, như sắp theo điểm
+                continue;
+            }
+            Comparator<InvertedIndex.Hit<T>> byField = Comparator.comparing(InvertedIndex.Hit::document,
+                    order.isAscending() ? field : field.reversed());
+            comparator = comparator == null ? byField : comparator.thenComparing(byField);
+        }
+        Comparator<InvertedIndex.Hit<T>> relevance = byRelevance();
+        return comparator == null ? relevance : comparator.thenComparing(relevance);
+    }
+
+    private static <T> Comparator<InvertedIndex.Hit<T>> byRelevance() {
+        return Comparator.comparingDouble((InvertedIndex.Hit<T> hit) -> hit.score()).reversed()
+                .thenComparing(InvertedIndex.Hit::id);
+    }
+}
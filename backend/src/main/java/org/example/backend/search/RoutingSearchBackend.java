@@ -0,0 +1,141 @@
+package org.example.backend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SearchBackend} services use, chosen by {@code app.search.backend}.
+ * <ul>
+ *     <li>{@code elasticsearch}: Elasticsearch only.</li>
+ *     <li>{@code local}: the in-process index only, for deployments without Elasticsearch.</li>
+ *     <li>{@code hybrid}: writes go to both; reads go to Elasticsearch and fall back to
+ *     the local index when it fails, skipping Elasticsearch for a retry interval so an
+ *     outage does not cost every request a timeout.</li>
+ * </ul>
+ */
+@Slf4j
+@Primary
+@Component
+public class RoutingSearchBackend implements SearchBackend {
+
+    public enum Mode {
+        ELASTICSEARCH,
+        LOCAL,
+        HYBRID
+    }
+
+    private final ElasticsearchSearchBackend elasticsearch;
+    private final LocalSearchBackend local;
+    private final Mode mode;
+    private final long retryMillis;
+    // Thời điểm được thử lại ES sau lần lỗi gần nhất
+    private final AtomicLong elasticsearchRetryAt = new AtomicLong();
+
+    public RoutingSearchBackend(
+            ElasticsearchSearchBackend elasticsearch,
+            LocalSearchBackend local,
+            @Value("${app.search.backend:elasticsearch}") String mode,
+            @Value("${app.search.fallback.retry-seconds:30}") long retrySeconds) {
+        this.elasticsearch = elasticsearch;
+        this.local = local;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.retryMillis = Duration.ofSeconds(retrySeconds).toMillis();
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Whether the local index is written to and must be filled on startup.
+     */
+    public boolean usesLocal() {
+        return mode != Mode.ELASTICSEARCH;
+    }
+
+    public boolean usesElasticsearch() {
+        return mode != Mode.LOCAL;
+    }
+
+    @Override
+    public Page<PostDocument> searchPosts(String keyword, boolean includeDeleted, Pageable pageable) {
+        return read(() -> elasticsearch.searchPosts(keyword, includeDeleted, pageable),
+                () -> local.searchPosts(keyword, includeDeleted, pageable));
+    }
+
+    @Override
+    public List<PostDocument> findPosts(Collection<String> ids) {
+        return read(() -> elasticsearch.findPosts(ids), () -> local.findPosts(ids));
+    }
+
+    @Override
+    public void savePosts(Collection<PostDocument> documents) {
+        write(() -> local.savePosts(documents), () -> elasticsearch.savePosts(documents));
+    }
+
+    @Override
+    public void deletePosts(Collection<String> ids) {
+        write(() -> local.deletePosts(ids), () -> elasticsearch.deletePosts(ids));
+    }
+
+    @Override
+    public Page<UserDocument> searchUsers(String keyword, Boolean isStaff, Boolean isActive, Pageable pageable) {
+        return read(() -> elasticsearch.searchUsers(keyword, isStaff, isActive, pageable),
+                () -> local.searchUsers(keyword, isStaff, isActive, pageable));
+    }
+
+    @Override
+    public List<UserDocument> suggestUsers(String prefix, int limit) {
+        return read(() -> elasticsearch.suggestUsers(prefix, limit), () -> local.suggestUsers(prefix, limit));
+    }
+
+    @Override
+    public List<UserDocument> findUsers(Collection<String> ids) {
+        return read(() -> elasticsearch.findUsers(ids), () -> local.findUsers(ids));
+    }
+
+    @Override
+    public void saveUsers(Collection<UserDocument> documents) {
+        write(() -> local.saveUsers(documents), () -> elasticsearch.saveUsers(documents));
+    }
+
+    private <T> T read(Supplier<T> fromElasticsearch, Supplier<T> fromLocal) {
+        if (mode == Mode.ELASTICSEARCH) {
+            return fromElasticsearch.get();
+        }
+        if (mode == Mode.LOCAL || System.currentTimeMillis() < elasticsearchRetryAt.get()) {
+            return fromLocal.get();
+        }
+        try {
+            return fromElasticsearch.get();
+        } catch (RuntimeException e) {
+            elasticsearchRetryAt.set(System.currentTimeMillis() + retryMillis);
+            log.warn("Elasticsearch search failed, using the local index for {} s: {}",
+                    retryMillis / 1000, e.getMessage());
+            return fromLocal.get();
+        }
+    }
+
+    // Ghi bản local trước: nó không lỗi, và vẫn đúng khi ES đang ngừng
+    private void write(Runnable toLocal, Runnable toElasticsearch) {
+        if (usesLocal()) {
+            toLocal.run();
+        }
+        if (usesElasticsearch()) {
+            toElasticsearch.run();
+        }
+    }
+}
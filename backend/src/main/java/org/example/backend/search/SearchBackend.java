@@ -0,0 +1,49 @@
+package org.example.backend.search;
+
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where post and user documents are indexed and searched.
+ * Services depend on this rather than on the Elasticsearch repositories, so search can
+ * run on the in-process {@link LocalSearchBackend} when Elasticsearch is down or not
+ * deployed at all. The primary bean is {@link RoutingSearchBackend}.
+ */
+public interface SearchBackend {
+
+    /**
+     * Posts whose content contains every word of the keyword.
+     *
+     * @param includeDeleted Whether locked posts are included
+     */
+    Page<PostDocument> searchPosts(String keyword, boolean includeDeleted, Pageable pageable);
+
+    /**
+     * Documents for the given ids; unknown ids are skipped and order is not kept.
+     */
+    List<PostDocument> findPosts(Collection<String> ids);
+
+    void savePosts(Collection<PostDocument> documents);
+
+    void deletePosts(Collection<String> ids);
+
+    /**
+     * Users whose name matches the keyword, or all users for a null or blank keyword.
+     * A null flag does not filter.
+     */
+    Page<UserDocument> searchUsers(String keyword, Boolean isStaff, Boolean isActive, Pageable pageable);
+
+    /**
+     * Active users with a name word starting with each typed word, best match first.
+     */
+    List<UserDocument> suggestUsers(String prefix, int limit);
+
+    List<UserDocument> findUsers(Collection<String> ids);
+
+    void saveUsers(Collection<UserDocument> documents);
+}
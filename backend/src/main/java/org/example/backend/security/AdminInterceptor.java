@@ -1,24 +1,24 @@
 package org.example.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.example.backend.entity.User;
-import org.example.backend.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Optional;
+
+@Slf4j
 @Component
 public class AdminInterceptor implements HandlerInterceptor {
-    @Autowired
-    private UserService userService;
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final UserRoleCache userRoleCache;
+    private final JwtUtil jwtUtil;
 
-    public AdminInterceptor(UserService userService, JwtUtil jwtUtil) {
-        this.userService = userService;
+    public AdminInterceptor(UserRoleCache userRoleCache, JwtUtil jwtUtil) {
+        this.userRoleCache = userRoleCache;
         this.jwtUtil = jwtUtil;
     }
 
@@ -52,22 +52,33 @@ public class AdminInterceptor implements HandlerInterceptor {
 
         String token = authHeader.replace("Bearer ", "");
         try {
-            String email = jwtUtil.extractEmail(token);
+            // JwtFilter đã parse token, chỉ parse lại khi request không đi qua filter
+            Claims claims = request.getAttribute(JwtFilter.CLAIMS_ATTRIBUTE) instanceof Claims parsed
+                    ? parsed
+                    : jwtUtil.getClaims(token);
+            String email = claims.getSubject();
             if (email == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return false;
             }
 
-            // Lấy thông tin user
-            User user = userService.getUserInfo(email);
-            if (user == null || !user.getIsStaff()) {
+            // Token ghi rõ không phải staff thì từ chối luôn, không cần tra cứu
+            Boolean staffClaim = claims.get(JwtUtil.STAFF_CLAIM, Boolean.class);
+            if (Boolean.FALSE.equals(staffClaim)) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                return false;
+            }
+
+            // Quyền có thể đã bị thu hồi sau khi cấp token nên vẫn đối chiếu với cache
+            Optional<UserRoleCache.UserRole> role = userRoleCache.get(email);
+            if (role.isEmpty() || !role.get().staff() || !role.get().active()) {
                 response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                 return false;
             }
 
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.debug("Rejecting admin request: {}", e.getMessage());
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return false;
         }
@@ -3,6 +3,7 @@ package org.example.backend.security;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHeaders;
 import org.apache.http.message.BasicHeader;
 import org.elasticsearch.client.RestClient;
@@ -10,6 +11,7 @@ import org.elasticsearch.client.RestClientBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
 public class ElasticsearchConfig {
 
@@ -20,10 +22,7 @@ public class ElasticsearchConfig {
         String portStr = System.getProperty("ELASTIC_PORT");
         String apiKey = System.getProperty("ELASTIC_API_KEY");
 
-        // Debug (tạm thời)
-        System.out.println("ES Host: " + host);
-        System.out.println("ES Port: " + portStr);
-        System.out.println("ES ApiKey: " + (apiKey != null ? "OK" : "null"));
+        log.info("Elasticsearch host: {}:{} (api key {})", host, portStr, apiKey != null ? "set" : "missing");
 
         // Kiểm tra lỗi thiếu cấu hình
         if (host == null || portStr == null || apiKey == null) {
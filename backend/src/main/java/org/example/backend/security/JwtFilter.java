@@ -1,5 +1,6 @@
 package org.example.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,10 +12,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
+    public static final String CLAIMS_ATTRIBUTE = JwtFilter.class.getName() + ".claims";
+
     private final JwtUtil jwtUtil;
 
     @Override
@@ -38,18 +42,20 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = header.substring(7);
 
         try {
-            String email = jwtUtil.extractEmail(token);
+            // Parse một lần rồi dùng lại claims cho cả filter lẫn AdminInterceptor
+            Claims claims = jwtUtil.getClaims(token);
+            String email = claims.getSubject();
 
-            if (!jwtUtil.isAccessToken(token)) {
+            if (!"access".equals(claims.get("type"))) {
                 sendErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, "This is a Refresh Token, rejecting...");
                 return;
             }
             // Thêm vào để hết lỗi author 403
-            if (email != null && jwtUtil.isTokenValid(token, email)) {
+            if (email != null && claims.getExpiration().after(new Date())) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(email,
                         null, null); // No credentials needed here, principal (email) is enough
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                // request.setAttribute("email", email);
+                request.setAttribute(CLAIMS_ATTRIBUTE, claims);
                 chain.doFilter(request, response);
             } else {
                 sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired JWT token");
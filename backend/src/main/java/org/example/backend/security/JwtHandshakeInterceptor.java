@@ -1,6 +1,7 @@
 package org.example.backend.security;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
@@ -12,6 +13,7 @@ import java.security.Principal;
 
 import java.util.Map;
 
+@Slf4j
 @Component
 public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
@@ -43,13 +45,13 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
             // Nếu không có token, cho phép kết nối không xác thực (tạm thời để debug)
             if (token == null || token.isEmpty()) {
-                System.out.println("Warning: No JWT token found in request");
+                log.warn("No JWT token found in WebSocket handshake");
                 return true;
             }
 
             try {
                 String email = jwtUtils.extractEmail(token);
-                System.out.println("WebSocket authenticated for user: " + email);
+                log.debug("WebSocket authenticated for user: {}", email);
                 attributes.put("email", email); // Gán vào session attributes
 
                 // Tạo Principal để Spring sử dụng trong STOMP
@@ -59,7 +61,7 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
                 servletRequest.getServletRequest().setAttribute("SPRING.PRINCIPAL", userPrincipal);
                 return true;
             } catch (Exception e) {
-                System.out.println("Invalid JWT: " + e.getMessage());
+                log.warn("Invalid JWT in WebSocket handshake: {}", e.getMessage());
                 // Cho phép kết nối không xác thực (tạm thời để debug)
                 return true;
             }
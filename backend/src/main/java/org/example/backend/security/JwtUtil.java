@@ -1,63 +1,125 @@
 package org.example.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import lombok.RequiredArgsConstructor;
-import org.example.backend.entity.RefreshToken;
-import org.example.backend.repository.RefreshTokenRepository;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
-@RequiredArgsConstructor
 public class JwtUtil {
-    private final SecretKey SECRET_KEY = Jwts.SIG.HS256.key().build();
+    public static final String FAMILY_CLAIM = "fam";
+    public static final String STAFF_CLAIM = "staff";
+    public static final String ISSUED_MILLIS_CLAIM = "iat_ms";
+
+    private final SecretKey SECRET_KEY;
     private final long ACCESS_EXPIRATION_TIME = 900000; // 15 phút
     private final long REFRESH_EXPIRATION_TIME = 604800000; // 7 ngày
-    private final RefreshTokenRepository refreshTokenRepository;
+
+    public JwtUtil(@Value("${app.jwt.secret:}") String secret) {
+        // Không cấu hình secret thì mỗi lần khởi động tạo khoá mới, token cũ hết hiệu lực
+        this.SECRET_KEY = secret == null || secret.isBlank()
+                ? Jwts.SIG.HS256.key().build()
+                : Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
 
     // Tạo Access Token
     public String generateAccessToken(String email) {
         try {
-            return Jwts.builder()
-                    .subject(email)
-                    .issuedAt(new Date())
-                    .expiration(new Date(System.currentTimeMillis() + ACCESS_EXPIRATION_TIME))
-                    .claim("type", "access")
-                    .signWith(SECRET_KEY)
-                    .compact();
+            return accessTokenBuilder(email).compact();
         } catch (Exception e) {
             throw new RuntimeException("Error generating access token: " + e.getMessage());
         }
     }
 
-    // Tạo Refresh Token
+    // Tạo Access Token kèm quyền staff để AdminInterceptor không phải truy vấn DB
+    public String generateAccessToken(String email, boolean staff) {
+        try {
+            return accessTokenBuilder(email).claim(STAFF_CLAIM, staff).compact();
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating access token: " + e.getMessage());
+        }
+    }
+
+    private JwtBuilder accessTokenBuilder(String email) {
+        return Jwts.builder()
+                .subject(email)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ACCESS_EXPIRATION_TIME))
+                .claim("type", "access")
+                .signWith(SECRET_KEY);
+    }
+
+    // Tạo Refresh Token cho một phiên đăng nhập mới
     public String generateRefreshToken(String email) {
+        return generateRefreshToken(email, UUID.randomUUID().toString());
+    }
+
+    // Tạo Refresh Token thuộc một họ token (các lần xoay vòng của cùng một phiên)
+    public String generateRefreshToken(String email, String familyId) {
         try {
-            String token = Jwts.builder()
+            // iat chỉ chính xác tới giây, thời điểm thu hồi cần so tới mili giây
+            Date now = new Date();
+            return Jwts.builder()
+                    .id(UUID.randomUUID().toString())
                     .subject(email)
-                    .issuedAt(new Date())
+                    .issuedAt(now)
                     .expiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION_TIME))
                     .claim("type", "refresh")
+                    .claim(FAMILY_CLAIM, familyId)
+                    .claim(ISSUED_MILLIS_CLAIM, now.getTime())
                     .signWith(SECRET_KEY)
                     .compact();
-
-            RefreshToken refreshToken = RefreshToken.builder()
-                    .token(token)
-                    .email(email)
-                    .expiryDate(Instant.now().plusMillis(REFRESH_EXPIRATION_TIME))
-                    .build();
-
-            refreshTokenRepository.save(refreshToken);
-            return token;
         } catch (Exception e) {
             throw new RuntimeException("Error generating refresh token: " + e.getMessage());
         }
     }
 
+    public long getRefreshExpirationMillis() {
+        return REFRESH_EXPIRATION_TIME;
+    }
+
+    /**
+     * Verifies a refresh token and returns its claims.
+     * Unlike the other helpers the JJWT exception is not wrapped, so callers can tell
+     * an expired token ({@link io.jsonwebtoken.ExpiredJwtException}) from an invalid one.
+     *
+     * @param token The refresh token
+     * @return Claims of the token
+     * @throws JwtException If the token is malformed, expired, badly signed or not a refresh token
+     */
+    public Claims getRefreshClaims(String token) {
+        Claims claims = Jwts.parser()
+                .verifyWith(SECRET_KEY)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        if (!"refresh".equals(claims.get("type")) || claims.getId() == null || claims.get(FAMILY_CLAIM) == null) {
+            throw new JwtException("Not a refresh token");
+        }
+        return claims;
+    }
+
+    /**
+     * Returns when a refresh token was issued, to the millisecond.
+     * Tokens issued before the millisecond claim existed fall back to the whole-second {@code iat}.
+     *
+     * @param claims Claims of a refresh token
+     * @return Issue time of the token
+     */
+    public static Instant getIssuedAt(Claims claims) {
+        Long issuedMillis = claims.get(ISSUED_MILLIS_CLAIM, Long.class);
+        return issuedMillis != null ? Instant.ofEpochMilli(issuedMillis) : claims.getIssuedAt().toInstant();
+    }
+
     // Lấy email từ token
     public String extractEmail(String token) {
         try {
@@ -95,7 +157,7 @@ public class JwtUtil {
     }
 
     // Lấy thông tin từ token
-    private Claims getClaims(String token) {
+    public Claims getClaims(String token) {
         try {
             return Jwts.parser()
                     .verifyWith(SECRET_KEY)
@@ -0,0 +1,182 @@
+package org.example.backend.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation state for stateless refresh tokens.
+ * Holds used token ids, revoked token families and per-user cut-off times, each keyed
+ * to the epoch second it was recorded; cut-offs are kept to the millisecond so a token
+ * issued in the same second as a logout is still told apart from one issued after it. An entry is only needed while a token it covers
+ * could still be unexpired, so everything older than the refresh lifetime is pruned.
+ * The state is written to a snapshot file periodically and on shutdown, and read back
+ * at start-up; with a random per-process signing key there is nothing to restore, so
+ * the snapshot only matters once {@code app.jwt.secret} is configured.
+ */
+@Slf4j
+@Component
+public class RefreshTokenRevocationStore {
+
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final Map<UUID, Long> usedTokens = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> revokedFamilies = new ConcurrentHashMap<>();
+    // Mốc thu hồi theo người dùng tính bằng mili giây
+    private final Map<String, Long> subjectCutoffs = new ConcurrentHashMap<>();
+    private final long lifetimeSeconds;
+    private final Path snapshotFile;
+
+    public RefreshTokenRevocationStore(
+            JwtUtil jwtUtil,
+            @Value("${app.auth.revocation.snapshot-file:${user.dir}/data/refresh-revocations.bin}") String snapshotFile) {
+        this.lifetimeSeconds = jwtUtil.getRefreshExpirationMillis() / 1000;
+        this.snapshotFile = Paths.get(snapshotFile);
+    }
+
+    /**
+     * Marks a token id as used.
+     *
+     * @param tokenId The jti of the token
+     * @return Epoch second the token was first used, or -1 if this is the first use
+     */
+    public long markUsed(UUID tokenId) {
+        Long previous = usedTokens.putIfAbsent(tokenId, now());
+        return previous != null ? previous : -1;
+    }
+
+    public void revokeFamily(UUID familyId) {
+        revokedFamilies.put(familyId, now());
+    }
+
+    public boolean isFamilyRevoked(UUID familyId) {
+        return revokedFamilies.containsKey(familyId);
+    }
+
+    /**
+     * Invalidates every refresh token of a user issued before the current millisecond.
+     */
+    public void revokeSubject(String email) {
+        subjectCutoffs.put(email, Instant.now().toEpochMilli());
+    }
+
+    /**
+     * Checks whether a token was issued before the user's last cut-off.
+     *
+     * @param email Token subject
+     * @param issuedAt Token issue time
+     */
+    public boolean isRevokedForSubject(String email, Instant issuedAt) {
+        Long cutoff = subjectCutoffs.get(email);
+        return cutoff != null && issuedAt.toEpochMilli() < cutoff;
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.snapshot-ms:60000}")
+    public void pruneAndSnapshot() {
+        long horizon = now() - lifetimeSeconds;
+        usedTokens.values().removeIf(recordedAt -> recordedAt < horizon);
+        revokedFamilies.values().removeIf(recordedAt -> recordedAt < horizon);
+        subjectCutoffs.values().removeIf(cutoff -> cutoff / 1000 < horizon);
+        writeSnapshot();
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        long horizon = now() - lifetimeSeconds;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION && version != 1) {
+                log.warn("Ignoring refresh revocation snapshot with unknown version");
+                return;
+            }
+            readUuids(in, usedTokens, horizon);
+            readUuids(in, revokedFamilies, horizon);
+            int subjects = in.readInt();
+            for (int i = 0; i < subjects; i++) {
+                String email = in.readUTF();
+                // Bản chụp phiên bản 1 lưu mốc thu hồi theo giây
+                long cutoff = version == 1 ? in.readLong() * 1000 : in.readLong();
+                if (cutoff / 1000 >= horizon) {
+                    subjectCutoffs.put(email, cutoff);
+                }
+            }
+            log.info("Loaded refresh revocations: {} used tokens, {} families, {} users",
+                    usedTokens.size(), revokedFamilies.size(), subjectCutoffs.size());
+        } catch (IOException e) {
+            log.warn("Could not read refresh revocation snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        try {
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                writeUuids(out, usedTokens);
+                writeUuids(out, revokedFamilies);
+                Map<String, Long> subjects = Map.copyOf(subjectCutoffs);
+                out.writeInt(subjects.size());
+                for (Map.Entry<String, Long> entry : subjects.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            try {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write refresh revocation snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    // Mỗi UUID ghi thành hai số long, cộng thêm thời điểm ghi nhận
+    private static void writeUuids(DataOutputStream out, Map<UUID, Long> entries) throws IOException {
+        Map<UUID, Long> copy = Map.copyOf(entries);
+        out.writeInt(copy.size());
+        for (Map.Entry<UUID, Long> entry : copy.entrySet()) {
+            out.writeLong(entry.getKey().getMostSignificantBits());
+            out.writeLong(entry.getKey().getLeastSignificantBits());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static void readUuids(DataInputStream in, Map<UUID, Long> target, long horizon) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            long recordedAt = in.readLong();
+            if (recordedAt >= horizon) {
+                target.put(id, recordedAt);
+            }
+        }
+    }
+
+    private static long now() {
+        return Instant.now().getEpochSecond();
+    }
+}
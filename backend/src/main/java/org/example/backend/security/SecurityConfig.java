@@ -1,8 +1,11 @@
 package org.example.backend.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -25,12 +28,30 @@ public class SecurityConfig {
                 return new BCryptPasswordEncoder();
         }
 
+        /**
+         * Actuator endpoints live on the management port, which is bound to an internal
+         * address. The matcher only applies to requests served by that port, so the
+         * public chain below never permits them.
+         */
+        @Bean
+        @Order(1)
+        public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+                http
+                                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                                .csrf(AbstractHttpConfigurer::disable)
+                                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+                return http.build();
+        }
+
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 http
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .authorizeHttpRequests(auth -> auth
+                                                // "/api/users/{email}" bên dưới cũng khớp đường dẫn này; gợi ý tên lộ email nên phải đăng nhập
+                                                .requestMatchers(HttpMethod.GET, "/api/users/typeahead").authenticated()
                                                 .requestMatchers(
                                                                 "/api/users/login",
                                                                 "/api/users/register",
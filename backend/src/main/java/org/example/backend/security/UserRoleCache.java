@@ -0,0 +1,64 @@
+package org.example.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of user roles and account status, keyed by email.
+ * Admin checks and token refreshes read from here instead of loading the user;
+ * {@link org.example.backend.service.UserService} evicts an entry when it registers,
+ * bans or unbans a user, the only places the application writes roles or account
+ * status. The TTL bounds staleness for changes made outside the application, such
+ * as granting staff directly in the database.
+ */
+@Component
+public class UserRoleCache {
+
+    public record UserRole(Long userId, boolean staff, boolean superUser, boolean active) {
+    }
+
+    // Giá trị rỗng cũng được cache để email không tồn tại không chạm DB liên tục
+    private final Cache<String, Optional<UserRole>> cache;
+    private final UserRepository userRepository;
+
+    public UserRoleCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.role-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.auth.role-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userRoles");
+    }
+
+    /**
+     * Finds the roles of a user.
+     *
+     * @param email The user's email
+     * @return The roles, or empty if the user does not exist
+     */
+    public Optional<UserRole> get(String email) {
+        return cache.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> new UserRole(
+                        user.getId(),
+                        Boolean.TRUE.equals(user.getIsStaff()),
+                        Boolean.TRUE.equals(user.getIsSuperUser()),
+                        Boolean.TRUE.equals(user.getIsActive()))));
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.backend.security;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Principal;
 
+@Slf4j
 @Component
 public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
@@ -31,7 +33,7 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
                     Principal user = () -> email;
                     accessor.setUser(user); // Gán Principal để Spring sử dụng
                 } catch (Exception e) {
-                    System.out.println("Invalid token in CONNECT: " + e.getMessage());
+                    log.warn("Invalid token in CONNECT: {}", e.getMessage());
                 }
             }
         }
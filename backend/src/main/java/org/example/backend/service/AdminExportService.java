@@ -0,0 +1,241 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import lombok.Getter;
+import org.example.backend.dto.AdminCommentRow;
+import org.example.backend.dto.AdminPostRow;
+import org.example.backend.dto.AdminUserRow;
+import org.example.backend.repository.CommentRepository;
+import org.example.backend.repository.PostRepository;
+import org.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Paged lists and streaming exports for the admin views.
+ * Both read flat row DTOs straight from JPQL, so no entity graph or comment tree is
+ * loaded. Exports walk the table by id in fixed-size batches and flush each batch
+ * to the response, keeping memory bounded regardless of table size.
+ */
+@Service
+public class AdminExportService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Getter
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static ExportFormat from(String value) {
+            return "csv".equalsIgnoreCase(value) ? CSV : NDJSON;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public AdminExportService(
+            UserRepository userRepository,
+            PostRepository postRepository,
+            CommentRepository commentRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.admin.export.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public Page<AdminUserRow> findUsers(String keyword, Boolean active, int page, int size) {
+        return userRepository.findAdminUserRows(0, likePattern(keyword), active, pageRequest(page, size));
+    }
+
+    public Page<AdminPostRow> findPosts(String keyword, Boolean deleted, Long userId, Date from, Date to, int page, int size) {
+        return postRepository.findAdminPostRows(0, likePattern(keyword), deleted, userId, from, to, pageRequest(page, size));
+    }
+
+    public Page<AdminCommentRow> findComments(String keyword, Long postId, Date from, Date to, int page, int size) {
+        return commentRepository.findAdminCommentRows(0, likePattern(keyword), postId, from, to, pageRequest(page, size));
+    }
+
+    /**
+     * Streams all matching non-staff users.
+     *
+     * @param out Response stream
+     * @param format Output format
+     * @param imageUrl Turns a stored avatar path into a public URL
+     */
+    public void exportUsers(OutputStream out, ExportFormat format, String keyword, Boolean active,
+                            UnaryOperator<String> imageUrl) throws IOException {
+        String pattern = likePattern(keyword);
+        write(out, format,
+                afterId -> userRepository.findAdminUserRowsAfter(afterId, pattern, active, batch())
+                        .stream()
+                        .peek(row -> row.setAvatar(imageUrl.apply(row.getAvatar())))
+                        .toList(),
+                AdminUserRow.class, AdminUserRow::getId);
+    }
+
+    public void exportPosts(OutputStream out, ExportFormat format, String keyword, Boolean deleted, Long userId,
+                            Date from, Date to) throws IOException {
+        String pattern = likePattern(keyword);
+        write(out, format,
+                afterId -> postRepository.findAdminPostRowsAfter(afterId, pattern, deleted, userId, from, to, batch()),
+                AdminPostRow.class, AdminPostRow::getId);
+    }
+
+    public void exportComments(OutputStream out, ExportFormat format, String keyword, Long postId,
+                               Date from, Date to) throws IOException {
+        String pattern = likePattern(keyword);
+        write(out, format,
+                afterId -> commentRepository.findAdminCommentRowsAfter(afterId, pattern, postId, from, to, batch()),
+                AdminCommentRow.class, AdminCommentRow::getId);
+    }
+
+    private <T> void write(OutputStream out, ExportFormat format, LongFunction<List<T>> nextBatch,
+                           Class<T> rowType, ToLongFunction<T> idOf) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out, rowType) : new NdjsonRowWriter(out);
+        long afterId = 0;
+        while (true) {
+            List<T> rows = nextBatch.apply(afterId);
+            for (T row : rows) {
+                writer.write(row);
+            }
+            // Đẩy từng lô xuống client để bộ nhớ không phụ thuộc kích thước bảng
+            writer.flush();
+            if (rows.size() < batchSize) {
+                return;
+            }
+            afterId = idOf.applyAsLong(rows.get(rows.size() - 1));
+        }
+    }
+
+    private Pageable batch() {
+        return PageRequest.of(0, batchSize);
+    }
+
+    private static Pageable pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    private static String likePattern(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        return "%" + keyword.trim().toLowerCase(Locale.ROOT) + "%";
+    }
+
+    private interface RowWriter {
+        void write(Object row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Object row) throws IOException {
+            objectMapper.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<String> columns;
+
+        // Tiêu đề lấy từ kiểu dòng chứ không từ dòng đầu, để file rỗng vẫn có tiêu đề
+        CsvRowWriter(OutputStream out, Class<?> rowType) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columns = objectMapper.getSerializationConfig()
+                    .introspect(objectMapper.constructType(rowType))
+                    .findProperties().stream()
+                    .filter(BeanPropertyDefinition::couldSerialize)
+                    .map(BeanPropertyDefinition::getName)
+                    .toList();
+            writeLine(columns);
+        }
+
+        @Override
+        public void write(Object row) throws IOException {
+            JsonNode node = objectMapper.valueToTree(row);
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode value = node.get(column);
+                values.add(value == null || value.isNull() ? "" : value.asText());
+            }
+            writeLine(values);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private static String escape(String value) {
+        // Chặn công thức khi mở file bằng Excel/Sheets; tab và CR đầu ô cũng bị bỏ qua rồi tính công thức phía sau
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
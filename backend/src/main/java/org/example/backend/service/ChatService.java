@@ -6,6 +6,9 @@ import org.example.backend.dto.ChatUserDTO;
 import org.example.backend.entity.ChatMessage;
 import org.example.backend.entity.User;
 import org.example.backend.repository.ChatMessageRepository;
+import org.example.backend.storage.MediaStorage;
+import org.example.backend.storage.StagedUpload;
+import org.example.backend.storage.UploadStager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -31,6 +34,8 @@ public class ChatService {
 
     private final ChatMessageRepository chatMessageRepository;
     private final UserService userService;
+    private final UploadStager uploadStager;
+    private final MediaStorage mediaStorage;
     private final Path uploadPath;
 
     // File type patterns
@@ -44,9 +49,13 @@ public class ChatService {
     public ChatService(
             ChatMessageRepository chatMessageRepository,
             UserService userService,
+            UploadStager uploadStager,
+            MediaStorage mediaStorage,
             @Value("${app.upload.dir:${user.dir}/uploads}") String uploadDir) {
         this.chatMessageRepository = chatMessageRepository;
         this.userService = userService;
+        this.uploadStager = uploadStager;
+        this.mediaStorage = mediaStorage;
         this.uploadPath = Paths.get(uploadDir);
 
         createUploadDirectoryIfNeeded();
@@ -137,12 +146,6 @@ public class ChatService {
     public String uploadFile(MultipartFile file) throws IOException {
         log.info("Starting file upload process for {}", file.getOriginalFilename());
 
-        // Validate file size
-        if (file.getSize() > MAX_FILE_SIZE) {
-            log.error("File size exceeds limit: {}", file.getSize());
-            throw new IOException("File size exceeds 10MB limit");
-        }
-
         // Validate file type
         String contentType = file.getContentType();
         log.debug("File content type: {}", contentType);
@@ -162,16 +165,12 @@ public class ChatService {
             throw new IOException("Invalid file type. Allowed types: images, PDF, Word, Excel, text, zip, rar");
         }
 
-        // Generate unique filename and save file
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
-        log.debug("Saving file to: {}", filePath);
-
-        Files.copy(file.getInputStream(), filePath);
-        log.info("File saved successfully: {}", filePath);
-
-        String fileUrl = "/uploads/" + fileName;
-        return fileUrl;
+        // Stream to staging first; the size limit is enforced while copying
+        try (StagedUpload staged = uploadStager.stage(file, MAX_FILE_SIZE)) {
+            String fileUrl = mediaStorage.store(staged, "chat_files");
+            log.info("File saved successfully: {}", fileUrl);
+            return fileUrl;
+        }
     }
 
     /**
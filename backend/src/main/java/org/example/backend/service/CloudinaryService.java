@@ -2,6 +2,10 @@ package org.example.backend.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.storage.MediaStorage;
+import org.example.backend.storage.StagedUpload;
+import org.example.backend.storage.UploadStager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,15 +14,22 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Service
-public class CloudinaryService {
+public class CloudinaryService implements MediaStorage {
 
     private final Cloudinary cloudinary;
+    private final UploadStager uploadStager;
+    private final long maxFileSize;
 
     public CloudinaryService(
+            UploadStager uploadStager,
             @Value("${cloudinary.cloud_name}") String cloudName,
             @Value("${cloudinary.api_key}") String apiKey,
-            @Value("${cloudinary.api_secret}") String apiSecret) {
+            @Value("${cloudinary.api_secret}") String apiSecret,
+            @Value("${app.upload.max-size:10485760}") long maxFileSize) {
+        this.uploadStager = uploadStager;
+        this.maxFileSize = maxFileSize;
         this.cloudinary = new Cloudinary(ObjectUtils.asMap(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
@@ -27,68 +38,65 @@ public class CloudinaryService {
     }
 
     public String uploadFile(MultipartFile file) throws IOException {
-        try {
-            System.out.println("Starting file upload process");
-            System.out.println("File name: " + file.getOriginalFilename());
-            System.out.println("File size: " + file.getSize());
-            System.out.println("Content type: " + file.getContentType());
+        log.debug("Uploading {} ({} bytes, {})", file.getOriginalFilename(), file.getSize(), file.getContentType());
+
+        // Ghi ra thư mục tạm thay vì nạp toàn bộ nội dung vào heap
+        try (StagedUpload staged = uploadStager.stage(file, maxFileSize)) {
+            String folder = isImage(staged) ? "chat_images" : "chat_files";
+            return store(staged, folder);
+        }
+    }
 
+    /**
+     * Uploads a staged file, using its content hash as the public id.
+     * Re-uploading identical bytes resolves to the existing asset instead of a new copy.
+     */
+    @Override
+    public String store(StagedUpload upload, String folder) {
+        try {
             Map<String, Object> options = new HashMap<>();
 
             // Xác định loại file
-            String contentType = file.getContentType();
-            String fileName = file.getOriginalFilename();
-            String extension = fileName != null ? fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase() : "";
-
-            System.out.println("File extension: " + extension);
+            String extension = upload.getExtension();
+            options.put("folder", folder);
+            options.put("overwrite", false);
+            options.put("unique_filename", false);
 
             // Nếu là file ảnh
-            if (contentType != null && contentType.startsWith("image/")) {
-                System.out.println("Processing image file");
+            if (isImage(upload)) {
                 options.put("resource_type", "image");
-                options.put("folder", "chat_images");
+                options.put("public_id", upload.getSha256());
             }
-            // Nếu là file PDF
-            else if (extension.equals("pdf")) {
-                System.out.println("Processing PDF file");
+            // Nếu là file PDF hoặc văn bản
+            else if (extension.equals("pdf") || extension.equals("txt")) {
                 options.put("resource_type", "raw");
-                options.put("folder", "chat_files");
-                options.put("format", "pdf");
-                options.put("public_id", fileName);
-            }
-            // Nếu là file văn bản
-            else if (extension.equals("txt")) {
-                System.out.println("Processing text file");
-                options.put("resource_type", "raw");
-                options.put("folder", "chat_files");
-                options.put("format", "txt");
-                options.put("public_id", fileName);
+                options.put("format", extension);
+                options.put("public_id", upload.getSha256() + "." + extension);
             }
             // Các file khác
             else {
-                System.out.println("Processing other file type");
                 options.put("resource_type", "raw");
-                options.put("folder", "chat_files");
-                options.put("public_id", fileName);
+                options.put("public_id", extension.isEmpty() ? upload.getSha256() : upload.getSha256() + "." + extension);
             }
 
-            System.out.println("Upload options: " + options);
+            log.debug("Cloudinary upload options: {}", options);
 
             // Upload file
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), options);
-            System.out.println("Upload result: " + uploadResult);
-
+            Map uploadResult = cloudinary.uploader().upload(upload.getPath().toFile(), options);
             String secureUrl = (String) uploadResult.get("secure_url");
-            System.out.println("Secure URL: " + secureUrl);
+            log.info("Uploaded {} to Cloudinary: {}", upload.getOriginalFilename(), secureUrl);
 
             return secureUrl;
         } catch (Exception e) {
-            System.err.println("Error uploading file to Cloudinary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error uploading file to Cloudinary: {}", e.getMessage(), e);
             throw new RuntimeException("Lỗi khi upload file: " + e.getMessage());
         }
     }
 
+    private static boolean isImage(StagedUpload upload) {
+        return upload.getContentType() != null && upload.getContentType().startsWith("image/");
+    }
+
     public void deleteFile(String publicId) throws IOException {
         cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
     }
@@ -2,15 +2,25 @@ package org.example.backend.service;
 
 import org.example.backend.dto.CommentDTO;
 import org.example.backend.dto.CommentListResponse;
+import org.example.backend.dto.CommentRow;
+import org.example.backend.dto.ImageRow;
+import org.example.backend.dto.LikerRow;
 import org.example.backend.entity.*;
 import org.example.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Date;
 
@@ -31,9 +41,15 @@ public class CommentService {
     @Autowired
     private LikeRepository likeRepository;  
 
+    @Autowired
+    private ImageRepository imageRepository;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Comment> getAllComments() {
         return commentRepository.findAll();
     }
@@ -47,16 +63,14 @@ public class CommentService {
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = getCurrentUser(currentUserEmail);
         
-        List<Comment> rootComments = commentRepository.findByPostIdAndParentCommentIsNullOrderByCreatedAtAsc(postId);
-        List<CommentDTO> rootCommentDtos = rootComments.stream()
-                .map(comment -> convertToDto(comment, currentUser))
+        List<CommentRow> rows = commentRepository.findRowsByPostId(postId);
+        List<CommentDTO> rootCommentDtos = toCommentDtos(rows, currentUser).values().stream()
+                .filter(comment -> comment.getParentId() == null)
                 .collect(Collectors.toList());
 
-        long totalCount = commentRepository.countByPostId(postId);
-
         return CommentListResponse.builder()
                 .comments(rootCommentDtos)
-                .totalCount(totalCount)
+                .totalCount(rows.size())
                 .build();
     }
 
@@ -86,6 +100,8 @@ public class CommentService {
         }
 
         comment = commentRepository.save(comment);
+        eventPublisher.publishEvent(PostChangedEvent.counts(postId));
+        eventPublisher.publishEvent(PostEngagementEvent.comment(postId));
 
         // ✳️ Gửi thông báo sau khi lưu
         notificationService.notifyComment(comment);
@@ -148,48 +164,82 @@ public class CommentService {
     }
 
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            eventPublisher.publishEvent(PostChangedEvent.counts(comment.getPost().getId()));
+            eventPublisher.publishEvent(PostEngagementEvent.uncomment(comment.getPost().getId(),
+                    comment.getCreatedAt().toInstant()));
+        });
     }
 
+    /**
+     * One comment with its replies. Only the comment's subtree is read, one query per
+     * level of replies, not the rest of the post's comments.
+     */
     @Transactional(readOnly = true)
     public CommentDTO getCommentDtoById(Long commentId, String currentUserEmail) {
-        Comment comment = getCommentByIdOrThrow(commentId);
+        List<CommentRow> rows = new ArrayList<>(commentRepository.findRowsByIdIn(List.of(commentId)));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Comment not found with id: " + commentId);
+        }
         User currentUser = getCurrentUser(currentUserEmail);
-        
-        return convertToDto(comment, currentUser);
-    }
 
-    private CommentDTO convertToDto(Comment comment, User currentUser) {
-        if (comment == null) {
-            return null;
+        Set<Long> seen = new HashSet<>(List.of(commentId));
+        List<Long> level = List.of(commentId);
+        while (!level.isEmpty()) {
+            List<CommentRow> replies = commentRepository.findRowsByParentIdIn(level).stream()
+                    .filter(row -> seen.add(row.id()))
+                    .toList();
+            rows.addAll(replies);
+            level = replies.stream().map(CommentRow::id).toList();
         }
+        rows.sort(Comparator.comparing(CommentRow::createdAt).thenComparing(CommentRow::id));
+        return toCommentDtos(rows, currentUser).get(commentId);
+    }
 
-        // Lấy thông tin like
-        boolean likedByCurrentUser = likeRepository.findByUserAndComment(currentUser, comment).isPresent();
-        long likesCount = likeRepository.countByCommentId(comment.getId());
-        List<User> likedUsers = comment.getLikes().stream()
-                .map(Like::getUser)
-                .collect(Collectors.toList());
-
-        // Đệ quy chuyển đổi replies thành DTOs
-        List<CommentDTO> replyDtos = comment.getReplies().stream()
-                .map(reply -> convertToDto(reply, currentUser))
-                .collect(Collectors.toList());
-
-        return CommentDTO.builder()
-                .id(comment.getId())
-                .content(comment.getContent())
-                .user(comment.getUser())
-                .postId(comment.getPost().getId())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
-                .likes(likedUsers)
-                .likeCount(likesCount)
-                .isLiked(likedByCurrentUser)
-                .parentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null)
-                .replies(replyDtos)
-                .images(comment.getImages())
-                .build();
+    /**
+     * Builds the comment tree of a post from projection rows. Likers and images are read
+     * with one query each, and replies are linked under their parent by id.
+     *
+     * @return DTOs by comment id, oldest first
+     */
+    private Map<Long, CommentDTO> toCommentDtos(List<CommentRow> rows, User currentUser) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> commentIds = rows.stream().map(CommentRow::id).toList();
+        Map<Long, List<LikerRow>> likers = likeRepository.findLikersByCommentIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(LikerRow::commentId));
+        Map<Long, List<Image>> images = imageRepository.findRowsByCommentIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(ImageRow::ownerId,
+                        Collectors.mapping(ImageRow::toImage, Collectors.toList())));
+
+        Map<Long, CommentDTO> comments = new LinkedHashMap<>();
+        for (CommentRow row : rows) {
+            List<LikerRow> commentLikers = likers.getOrDefault(row.id(), List.of());
+            comments.put(row.id(), CommentDTO.builder()
+                    .id(row.id())
+                    .content(row.content())
+                    .user(row.author())
+                    .postId(row.postId())
+                    .createdAt(row.createdAt())
+                    .updatedAt(row.updatedAt())
+                    .likes(commentLikers.stream().map(LikerRow::user).collect(Collectors.toList()))
+                    .likeCount((long) commentLikers.size())
+                    .isLiked(commentLikers.stream().anyMatch(liker -> liker.userId().equals(currentUser.getId())))
+                    .parentId(row.parentId())
+                    .replies(new ArrayList<>())
+                    .images(images.getOrDefault(row.id(), new ArrayList<>()))
+                    .build());
+        }
+        // Hàng đã theo thứ tự tạo nên trả lời được gắn vào bình luận cha theo đúng thứ tự đó
+        for (CommentDTO comment : comments.values()) {
+            CommentDTO parent = comment.getParentId() != null ? comments.get(comment.getParentId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(comment);
+            }
+        }
+        return comments;
     }
 
     private User getCurrentUser(String email) {
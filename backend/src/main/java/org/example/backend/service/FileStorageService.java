@@ -1,38 +1,33 @@
 package org.example.backend.service;
 
+import org.example.backend.storage.MediaStorage;
+import org.example.backend.storage.StagedUpload;
+import org.example.backend.storage.UploadStager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
 
 @Service
 public class FileStorageService {
-    private static final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/";
+    private final UploadStager uploadStager;
+    private final MediaStorage mediaStorage;
+    private final long maxFileSize;
 
-    public String saveFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
-
-        // Tạo tên file ngẫu nhiên
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(UPLOAD_DIR + fileName);
+    public FileStorageService(
+            UploadStager uploadStager,
+            MediaStorage mediaStorage,
+            @Value("${app.upload.max-size:10485760}") long maxFileSize) {
+        this.uploadStager = uploadStager;
+        this.mediaStorage = mediaStorage;
+        this.maxFileSize = maxFileSize;
+    }
 
-        // Lưu file vào thư mục
-        Files.createDirectories(filePath.getParent());
-        try {
-            file.transferTo(new File(filePath.toString()));
-            System.out.println("File saved successfully!");
-        } catch (IOException e) {
-            System.err.println("Error saving file: " + e.getMessage());
-            throw e;
+    public String saveFile(MultipartFile file) throws IOException {
+        // Ghi file ra thư mục tạm theo từng đoạn, không nạp cả file vào bộ nhớ
+        try (StagedUpload staged = uploadStager.stage(file, maxFileSize)) {
+            // Đường dẫn theo hash nội dung, file trùng chỉ lưu một lần
+            return mediaStorage.store(staged, "profile");
         }
-
-        return "/uploads/" + fileName; // Trả về đường dẫn file
     }
 }
-
@@ -2,6 +2,7 @@ package org.example.backend.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.example.backend.entity.Friendship;
 import org.example.backend.entity.User;
 import org.example.backend.exception.FriendshipException;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FriendshipService {
@@ -202,10 +204,7 @@ public class FriendshipService {
                         friendship.isActive())
                 .collect(Collectors.toList());
 
-        // Debug log
-        System.out.println("User " + userId + " has " + friends.size() + " friends");
-        friends.forEach(f -> System.out.println("Friend: " +
-                (f.getRequester().getId().equals(userId) ? f.getReceiver().getId() : f.getRequester().getId())));
+        log.debug("User {} has {} friends", userId, friends.size());
 
         return friends;
     }
@@ -0,0 +1,136 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.HashtagCount;
+import org.example.backend.entity.PostHashtag;
+import org.example.backend.repository.PostHashtagRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashtag use counts over a sliding window, in memory.
+ * Uses are counted in fixed time buckets (an hour by default); the window is the
+ * buckets of the last day, and older buckets are dropped as it slides. The top list is
+ * computed from the buckets at most once per cache interval, so the trending endpoint
+ * never touches the database. Counts are rebuilt from {@code post_hashtags} on startup.
+ */
+@Slf4j
+@Component
+public class HashtagTrends {
+
+    private record Snapshot(List<HashtagCount> top, long computedAt) {
+    }
+
+    private final PostHashtagRepository postHashtagRepository;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final long cacheMillis;
+    private final int maxLimit;
+    // chỉ số bucket (thời gian / độ dài bucket) -> hashtag -> số lần dùng
+    private final Map<Long, Map<String, LongAdder>> buckets = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), 0);
+
+    public HashtagTrends(
+            PostHashtagRepository postHashtagRepository,
+            @Value("${app.hashtags.trending.bucket-minutes:60}") long bucketMinutes,
+            @Value("${app.hashtags.trending.window-hours:24}") long windowHours,
+            @Value("${app.hashtags.trending.cache-seconds:60}") long cacheSeconds,
+            @Value("${app.hashtags.trending.max-limit:50}") int maxLimit) {
+        this.postHashtagRepository = postHashtagRepository;
+        this.bucketMillis = Duration.ofMinutes(bucketMinutes).toMillis();
+        this.bucketCount = (int) Math.max(1, Duration.ofHours(windowHours).toMillis() / bucketMillis);
+        this.cacheMillis = Duration.ofSeconds(cacheSeconds).toMillis();
+        this.maxLimit = maxLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(windowStart(System.currentTimeMillis()) * bucketMillis), ZoneId.systemDefault());
+        try {
+            List<PostHashtag> uses = postHashtagRepository.findVisibleSince(since);
+            uses.forEach(use -> add(use.getTag(), use.getCreatedAt()));
+            log.info("Loaded {} hashtag uses into the trending window", uses.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load trending hashtags: {}", e.getMessage());
+        }
+    }
+
+    public void add(String tag, LocalDateTime usedAt) {
+        adjust(tag, usedAt, 1);
+    }
+
+    public void remove(String tag, LocalDateTime usedAt) {
+        adjust(tag, usedAt, -1);
+    }
+
+    /**
+     * Most used hashtags in the window, most used first.
+     */
+    public List<HashtagCount> top(int limit) {
+        long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (now - current.computedAt() >= cacheMillis) {
+            current = new Snapshot(compute(now), now);
+            snapshot = current;
+        }
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        return current.top().size() > size ? current.top().subList(0, size) : current.top();
+    }
+
+    private void adjust(String tag, LocalDateTime usedAt, int delta) {
+        long bucket = toMillis(usedAt) / bucketMillis;
+        // Lần dùng đã ra khỏi cửa sổ thì không còn được đếm
+        if (bucket < windowStart(System.currentTimeMillis())) {
+            return;
+        }
+        buckets.computeIfAbsent(bucket, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tag, key -> new LongAdder())
+                .add(delta);
+    }
+
+    private List<HashtagCount> compute(long now) {
+        long start = windowStart(now);
+        buckets.keySet().removeIf(bucket -> bucket < start);
+
+        Map<String, Long> totals = new HashMap<>();
+        buckets.values().forEach(counts -> counts.forEach((tag, count) -> totals.merge(tag, count.sum(), Long::sum)));
+
+        // Heap nhỏ giữ maxLimit hashtag nhiều nhất thay vì sắp xếp toàn bộ
+        Comparator<HashtagCount> byCount = Comparator.comparingLong(HashtagCount::count)
+                .thenComparing(HashtagCount::tag, Comparator.reverseOrder());
+        PriorityQueue<HashtagCount> heap = new PriorityQueue<>(byCount);
+        totals.forEach((tag, count) -> {
+            if (count <= 0) {
+                return;
+            }
+            heap.offer(new HashtagCount(tag, count));
+            if (heap.size() > maxLimit) {
+                heap.poll();
+            }
+        });
+        return heap.stream().sorted(byCount.reversed()).toList();
+    }
+
+    private long windowStart(long nowMillis) {
+        return nowMillis / bucketMillis - bucketCount + 1;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,238 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.repository.ImageRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.storage.ImageVariant;
+import org.example.backend.storage.LocalMediaStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generates thumbnail and compressed variants for locally stored images.
+ * Work runs on a small dedicated pool after the upload's transaction commits; once the
+ * files exist, every Image and User row pointing at the original gets the variant URLs
+ * and the posts showing them are queued for reindexing.
+ * Decoding and resizing use ImageIO and Java2D only, so no native libraries are needed.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    // Giới hạn số điểm ảnh để tránh ảnh "bom giải nén" làm tràn heap
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final LocalMediaStorage mediaStorage;
+    private final ImageRepository imageRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final float jpegQuality;
+
+    public ImageVariantService(
+            LocalMediaStorage mediaStorage,
+            ImageRepository imageRepository,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.image.workers:2}") int workers,
+            @Value("${app.image.queue-capacity:200}") int queueCapacity,
+            @Value("${app.image.jpeg-quality:0.8}") float jpegQuality) {
+        this.mediaStorage = mediaStorage;
+        this.imageRepository = imageRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.jpegQuality = jpegQuality;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        // Hàng đợi đầy thì bỏ qua: ảnh gốc vẫn dùng được, biến thể chỉ là tối ưu
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("Image variant queue full, skipping task"));
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues variant generation for an uploaded image.
+     * When called inside a transaction the task starts only after commit, so the rows
+     * referencing the image are visible to the update.
+     *
+     * @param url URL returned by the media storage
+     */
+    public void generateVariantsAsync(String url) {
+        if (LocalMediaStorage.hashOf(url).isEmpty()) {
+            return;
+        }
+        Runnable task = () -> generateVariants(url);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(task);
+                }
+            });
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Generates missing variants for an image and records them on the referencing rows.
+     *
+     * @param url URL of the original image
+     */
+    public void generateVariants(String url) {
+        Optional<String> hash = LocalMediaStorage.hashOf(url);
+        Optional<Path> source = mediaStorage.resolve(url);
+        if (hash.isEmpty() || source.isEmpty() || !Files.exists(source.get())) {
+            return;
+        }
+
+        try {
+            Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+            BufferedImage decoded = null;
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = mediaStorage.variantPath(hash.get(), variant);
+                if (!Files.exists(target)) {
+                    if (decoded == null) {
+                        decoded = decode(source.get(), ImageVariant.MEDIUM.getMaxWidth());
+                        if (decoded == null) {
+                            log.debug("Skipping variants for unsupported image {}", url);
+                            return;
+                        }
+                    }
+                    writeJpeg(resize(decoded, variant.getMaxWidth()), target);
+                }
+                urls.put(variant, mediaStorage.variantUrl(hash.get(), variant));
+            }
+
+            String thumbnailUrl = urls.get(ImageVariant.THUMBNAIL);
+            String mediumUrl = urls.get(ImageVariant.MEDIUM);
+            if (imageRepository.updateVariants(url, thumbnailUrl, mediumUrl) > 0) {
+                // Tài liệu tìm kiếm chép URL ảnh vào, nên bài có ảnh này (và repost của nó) phải đánh chỉ mục lại
+                imageRepository.findPostIdsByUrl(url)
+                        .forEach(postId -> eventPublisher.publishEvent(PostChangedEvent.display(postId)));
+            }
+            if (userRepository.updateAvatarThumbnail(url, thumbnailUrl) > 0) {
+                userRepository.findIdsByAvatar(url)
+                        .forEach(userId -> eventPublisher.publishEvent(PostChangedEvent.author(userId)));
+            }
+            userRepository.updateBackgroundMedium(url, mediumUrl);
+            log.debug("Generated variants for {}", url);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate variants for {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes an image, subsampling while reading when it is much larger than needed.
+     *
+     * @return The decoded image, or null if no ImageIO reader supports the format
+     */
+    private static BufferedImage decode(Path source, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new IOException("Image is too large to process: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (targetWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales an image down to the given width in halving steps, which keeps bilinear
+     * filtering sharp without the cost of a bicubic pass. Never scales up.
+     */
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG không có kênh alpha nên phủ nền trắng cho ảnh trong suốt
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,14 +1,15 @@
 package org.example.backend.service;
 
+import org.example.backend.dto.UserDTO;
 import org.example.backend.entity.*;
 import org.example.backend.repository.LikeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class LikeService {
@@ -23,6 +24,8 @@ public class LikeService {
     private CommentService commentService;
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
 
     public void deleteLike(Long id) {
@@ -48,6 +51,8 @@ public class LikeService {
                 .build();
 
         like = likeRepository.save(like);
+        eventPublisher.publishEvent(PostChangedEvent.counts(postId));
+        eventPublisher.publishEvent(PostEngagementEvent.like(postId));
 
         if (!post.getUser().getId().equals(like.getUser().getId())) {
             notificationService.notifyLike(user, post);
@@ -93,7 +98,14 @@ public class LikeService {
         Optional<Like> existingLike = likeRepository.findByUserAndPost(user, post);
 
         // If the like exists, delete it
-        existingLike.ifPresent(like -> likeRepository.delete(like));
+        existingLike.ifPresent(like -> {
+            likeRepository.delete(like);
+            eventPublisher.publishEvent(PostChangedEvent.counts(postId));
+            // Lượt thích trước khi có cột created_at không biết đã đóng góp bao nhiêu, để nó tự suy giảm
+            if (like.getCreatedAt() != null) {
+                eventPublisher.publishEvent(PostEngagementEvent.unlike(postId, like.getCreatedAt().toInstant()));
+            }
+        });
         // No return value needed as the controller will fetch the updated post
     }
 
@@ -122,22 +134,13 @@ public class LikeService {
         return likeRepository.countByCommentId(commentId);
     }
 
-    @Transactional(readOnly = true) 
-    public List<User> getUsersWhoLikedComment(Long commentId) {
-
-        List<Like> likes = likeRepository.findByCommentId(commentId);
-
-        return likes.stream()
-                            .map(Like::getUser)
-                            .distinct()
-                            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<UserDTO> getUsersWhoLikedComment(Long commentId) {
+        return likeRepository.findUserDtosByCommentId(commentId);
     }
+
     @Transactional(readOnly = true)
-    public List<User> getUsersWhoLikedPost(Long postId) {
-        List<Like> likes = likeRepository.findByPostId(postId);
-        return likes.stream()
-                            .map(Like::getUser)
-                            .distinct()
-                            .collect(Collectors.toList());
+    public List<UserDTO> getUsersWhoLikedPost(Long postId) {
+        return likeRepository.findUserDtosByPostId(postId);
     }
 }
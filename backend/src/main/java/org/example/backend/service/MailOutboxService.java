@@ -0,0 +1,259 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.entity.MailDeadLetter;
+import org.example.backend.entity.MailOutbox;
+import org.example.backend.repository.MailDeadLetterRepository;
+import org.example.backend.repository.MailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox for outgoing mail.
+ * Callers only insert a row, so a request never waits on SMTP. A single dispatcher
+ * thread claims due rows in batches and sends each batch over one SMTP connection.
+ * Failed mails are retried with exponential backoff and moved to the dead-letter
+ * table once the attempts are used up. Dead letters keep only the recipient, subject
+ * and error, since the body carries OTPs and reset links.
+ */
+@Slf4j
+@Service
+public class MailOutboxService {
+
+    private final MailOutboxRepository outboxRepository;
+    private final MailDeadLetterRepository deadLetterRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transaction;
+    private final ThreadPoolTaskExecutor dispatcher;
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    public MailOutboxService(
+            MailOutboxRepository outboxRepository,
+            MailDeadLetterRepository deadLetterRepository,
+            JavaMailSender mailSender,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.outbox.enabled:true}") boolean enabled,
+            @Value("${app.mail.outbox.batch-size:20}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.mail.outbox.initial-backoff-ms:5000}") long initialBackoffMillis,
+            @Value("${app.mail.outbox.max-backoff-ms:900000}") long maxBackoffMillis,
+            @Value("${app.mail.outbox.claim-timeout-ms:120000}") long claimTimeoutMillis) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.mailSender = mailSender;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.retried");
+        this.deadCounter = meterRegistry.counter("mail.outbox.dead");
+
+        this.dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setCorePoolSize(1);
+        dispatcher.setMaxPoolSize(1);
+        dispatcher.setQueueCapacity(1);
+        dispatcher.setThreadNamePrefix("mail-dispatcher-");
+        // Đã có một lượt chờ chạy thì lượt đó sẽ gửi luôn thư mới
+        dispatcher.setRejectedExecutionHandler((task, pool) -> dispatchQueued.set(false));
+        dispatcher.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Queues a plain-text mail.
+     * Joins the caller's transaction, so the mail is only sent if the data it refers to
+     * (OTP, reset token) was committed. Dispatch is triggered right after commit.
+     *
+     * @param to Recipient address
+     * @param subject Mail subject
+     * @param text Plain-text body
+     */
+    public void enqueue(String to, String subject, String text) {
+        outboxRepository.save(MailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Polls for due retries and mails left over by a restart or another instance.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:5000}")
+    public void poll() {
+        requestDispatch();
+    }
+
+    private void requestDispatch() {
+        if (enabled && dispatchQueued.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchQueued.set(false);
+                try {
+                    while (dispatchBatch() == batchSize) {
+                        // Còn thư đến hạn thì gửi tiếp lượt sau
+                    }
+                } catch (Exception e) {
+                    log.error("Mail dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due mails.
+     *
+     * @return Number of mails in the batch
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        if (outboxRepository.claim(dueIds, token, now, now.plus(claimTimeout)) == 0) {
+            return 0;
+        }
+        List<MailOutbox> batch = outboxRepository.findByClaimToken(token);
+
+        SimpleMailMessage[] messages = batch.stream().map(this::toMessage).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        try {
+            // Một lần gửi nhiều thư dùng chung một kết nối SMTP
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        List<MailOutbox> sent = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            MailOutbox mail = batch.get(i);
+            if (failures.containsKey(messages[i])) {
+                recordFailure(mail, failures.get(messages[i]));
+            } else {
+                sent.add(mail);
+            }
+        }
+        outboxRepository.deleteAllInBatch(sent);
+        sentCounter.increment(sent.size());
+        if (!failures.isEmpty()) {
+            log.warn("Mail batch: {} sent, {} failed", sent.size(), failures.size());
+        }
+        return batch.size();
+    }
+
+    private void recordFailure(MailOutbox mail, Exception error) {
+        String message = error != null ? truncate(error.getMessage()) : "unknown error";
+        int attempts = mail.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            // Ghi thư chết và xoá khỏi outbox trong cùng một giao dịch để không mất hoặc lặp thư
+            transaction.executeWithoutResult(status -> {
+                deadLetterRepository.save(MailDeadLetter.builder()
+                        .recipient(mail.getRecipient())
+                        .subject(mail.getSubject())
+                        .attempts(attempts)
+                        .lastError(message)
+                        .createdAt(mail.getCreatedAt())
+                        .build());
+                outboxRepository.delete(mail);
+            });
+            deadCounter.increment();
+            log.error("Mail to {} moved to dead letters after {} attempts: {}", mail.getRecipient(), attempts, message);
+            return;
+        }
+        mail.setAttempts(attempts);
+        mail.setLastError(message);
+        mail.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        mail.setClaimToken(null);
+        mail.setLockedUntil(null);
+        outboxRepository.save(mail);
+        retriedCounter.increment();
+    }
+
+    // 5s, 10s, 20s, ... tối đa maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMessage(MailOutbox mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new HashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.UrlReferenceCount;
+import org.example.backend.repository.ChatMessageRepository;
+import org.example.backend.repository.ImageRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.storage.ImageVariant;
+import org.example.backend.storage.LocalMediaStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Removes content-addressed blobs that no row points at any more.
+ * Reference counts are derived from Image, User and ChatMessage rows rather than
+ * kept in a separate counter, so they can never drift from the data. Blobs younger
+ * than the grace period are skipped because an upload is stored before the post,
+ * profile or message that references it is saved.
+ */
+@Slf4j
+@Service
+public class MediaGarbageCollectionService {
+
+    private final LocalMediaStorage mediaStorage;
+    private final ImageRepository imageRepository;
+    private final UserRepository userRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    public MediaGarbageCollectionService(
+            LocalMediaStorage mediaStorage,
+            ImageRepository imageRepository,
+            UserRepository userRepository,
+            ChatMessageRepository chatMessageRepository,
+            @Value("${app.media.gc.enabled:true}") boolean enabled,
+            @Value("${app.media.gc.grace-hours:24}") long graceHours,
+            @Value("${app.media.gc.batch-size:500}") int batchSize) {
+        this.mediaStorage = mediaStorage;
+        this.imageRepository = imageRepository;
+        this.userRepository = userRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.enabled = enabled;
+        this.gracePeriod = Duration.ofHours(graceHours);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Scheduled entry point, runs once a night by default.
+     */
+    @Scheduled(cron = "${app.media.gc.cron:0 0 4 * * *}")
+    public void runGarbageCollection() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            int removed = collect();
+            log.info("Media GC removed {} unreferenced blobs in {} ms", removed, System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.error("Media GC failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Walks the blob store and deletes blobs with no references.
+     *
+     * @return Number of deleted blobs
+     * @throws IOException If the store cannot be walked
+     */
+    public int collect() throws IOException {
+        Path root = mediaStorage.getCasRoot();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        int removed = 0;
+        List<Path> batch = new ArrayList<>(batchSize);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                batch.add(file);
+                if (batch.size() >= batchSize) {
+                    removed += sweep(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += sweep(batch);
+        }
+        return removed;
+    }
+
+    /**
+     * Counts the rows that reference each URL.
+     *
+     * @param urls Media URLs
+     * @return Reference count per URL; URLs without references are absent
+     */
+    public Map<String, Long> countReferences(Collection<String> urls) {
+        Map<String, Long> counts = new HashMap<>();
+        merge(counts, imageRepository.countReferencesByUrl(urls));
+        merge(counts, userRepository.countReferencesByAvatar(urls));
+        merge(counts, userRepository.countReferencesByBackground(urls));
+        merge(counts, chatMessageRepository.countReferencesByFileUrl(urls));
+        return counts;
+    }
+
+    private int sweep(List<Path> files) throws IOException {
+        Map<String, Path> byUrl = new HashMap<>();
+        for (Path file : files) {
+            byUrl.put(mediaStorage.toUrl(file), file);
+        }
+        Map<String, Long> counts = countReferences(byUrl.keySet());
+
+        int removed = 0;
+        for (Map.Entry<String, Path> entry : byUrl.entrySet()) {
+            if (counts.getOrDefault(entry.getKey(), 0L) > 0) {
+                continue;
+            }
+            // Kiểm tra lại mtime: blob có thể vừa được upload lại trong lúc quét
+            Path file = entry.getValue();
+            if (Files.exists(file) && Files.getLastModifiedTime(file).toInstant()
+                    .isBefore(Instant.now().minus(gracePeriod))) {
+                Files.delete(file);
+                deleteVariants(entry.getKey());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void deleteVariants(String url) throws IOException {
+        String hash = LocalMediaStorage.hashOf(url).orElse(null);
+        if (hash == null) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.deleteIfExists(mediaStorage.variantPath(hash, variant));
+        }
+    }
+
+    private static void merge(Map<String, Long> counts, List<UrlReferenceCount> rows) {
+        for (UrlReferenceCount row : rows) {
+            counts.merge(row.getUrl(), row.getCount(), Long::sum);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.repository.NotificationRepository;
+import org.example.backend.util.BatchThrottle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically prunes the notifications table.
+ * Read notifications older than the retention window are deleted, and each user
+ * keeps at most a fixed number of notifications. Deletes run in small batches
+ * with a pause between them so the job never holds long locks on the table.
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long throttleMillis;
+    private final int maxPerUser;
+
+    public NotificationRetentionService(
+            NotificationRepository notificationRepository,
+            @Value("${app.notification.retention.enabled:true}") boolean enabled,
+            @Value("${app.notification.retention.days:30}") int retentionDays,
+            @Value("${app.notification.retention.batch-size:500}") int batchSize,
+            @Value("${app.notification.retention.throttle-ms:200}") long throttleMillis,
+            @Value("${app.notification.retention.max-per-user:500}") int maxPerUser) {
+        this.notificationRepository = notificationRepository;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.throttleMillis = throttleMillis;
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Scheduled entry point, runs once a night by default.
+     */
+    @Scheduled(cron = "${app.notification.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int expired = purgeExpiredRead();
+        int capped = enforcePerUserCap();
+        log.info("Notification retention removed {} expired and {} over-cap rows in {} ms",
+                expired, capped, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Deletes read notifications older than the retention window.
+     *
+     * @return Number of deleted rows
+     */
+    public int purgeExpiredRead() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        while (true) {
+            List<Long> ids = notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            total += notificationRepository.deleteByIdIn(ids);
+            if (ids.size() < batchSize || !BatchThrottle.pause(throttleMillis, "Notification retention")) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Keeps only the newest notifications of every user above the cap.
+     *
+     * @return Number of deleted rows
+     */
+    public int enforcePerUserCap() {
+        if (maxPerUser <= 0) {
+            return 0;
+        }
+        int total = 0;
+        for (Long receiverId : notificationRepository.findReceiverIdsWithMoreThan(maxPerUser)) {
+            while (true) {
+                // Lấy cap + batch id mới nhất, phần sau vị trí cap là phần cần xoá
+                List<Long> ids = notificationRepository.findIdsByReceiverIdNewestFirst(
+                        receiverId, PageRequest.of(0, maxPerUser + batchSize));
+                if (ids.size() <= maxPerUser) {
+                    break;
+                }
+                List<Long> overflow = ids.subList(maxPerUser, ids.size());
+                total += notificationRepository.deleteByIdIn(overflow);
+                if (!BatchThrottle.pause(throttleMillis, "Notification retention")) {
+                    return total;
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -13,7 +13,6 @@ import org.example.backend.entity.Comment;
 import org.example.backend.mapper.NotificationMapper;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -122,11 +121,7 @@ public class NotificationService {
     }
 
     public void markAllAsRead(User user) {
-        List<Notification> notifications = notificationRepository.findByReceiverIdOrderByCreatedAtDesc(user.getId());
-        for (Notification n : notifications) {
-            n.setIsRead(true);
-        }
-        notificationRepository.saveAll(notifications);
+        notificationRepository.markAllAsReadByReceiverId(user.getId());
     }
 
     public void deleteNotification(Long notificationId, User currentUser) {
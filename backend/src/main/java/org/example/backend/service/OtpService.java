@@ -3,9 +3,8 @@ package org.example.backend.service;
 import org.example.backend.entity.OtpVerification;
 import org.example.backend.repository.OtpVerificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -17,8 +16,9 @@ public class OtpService {
     @Autowired
     private OtpVerificationRepository otpRepo;
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxService mailOutboxService;
 
+    @Transactional
     public void sendOtpToEmail(String email) {
         String otp = String.format("%06d", new Random().nextInt(999999));
 
@@ -29,11 +29,7 @@ public class OtpService {
         otpRecord.setUsed(false);
         otpRepo.save(otpRecord);
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("Mã xác thực OTP");
-        message.setText("Mã OTP của bạn là: " + otp);
-        mailSender.send(message);
+        mailOutboxService.enqueue(email, "Mã xác thực OTP", "Mã OTP của bạn là: " + otp);
     }
 
     public boolean verifyOtp(String email, String otp) {
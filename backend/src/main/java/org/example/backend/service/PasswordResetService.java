@@ -5,10 +5,9 @@ import org.example.backend.entity.User;
 import org.example.backend.repository.PasswordResetTokenRepository;
 import org.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -21,10 +20,11 @@ public class PasswordResetService {
     @Autowired
     private UserRepository userRepo;
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxService mailOutboxService;
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Transactional
     public void sendPasswordResetToken(String email) {
         Optional<User> optionalUser = userRepo.findByEmail(email);
         if (optionalUser.isEmpty()) return;
@@ -72,11 +72,7 @@ public class PasswordResetService {
     }
 
     private void sendEmail(String to, String subject, String content) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(content);
-        mailSender.send(message);
+        mailOutboxService.enqueue(to, subject, content);
     }
 }
 
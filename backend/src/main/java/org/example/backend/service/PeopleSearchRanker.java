@@ -0,0 +1,151 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.dto.UserCount;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.entity.Friendship.FriendshipStatus;
+import org.example.backend.repository.FriendshipRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Re-ranks the top people search candidates for the person searching.
+ * Each candidate keeps a score from its search position and gains from friend-graph
+ * signals: already a friend, mutual friends, a pending request either way. The signals
+ * for the whole window come from a handful of batched queries, and the resulting order
+ * is cached per viewer and query for a short time so paging through it is free.
+ */
+@Component
+public class PeopleSearchRanker {
+
+    private static final double FRIEND_WEIGHT = 3.0;
+    private static final double PENDING_WEIGHT = 1.5;
+    private static final double MUTUAL_WEIGHT = 1.0;
+
+    private record RankKey(Long viewerId, SearchResultCache.Key query) {
+    }
+
+    private record Ranked(String id, int mutualFriends) {
+    }
+
+    private final FriendshipRepository friendshipRepository;
+    private final Cache<RankKey, List<Ranked>> rankings;
+    private final int window;
+
+    public PeopleSearchRanker(
+            FriendshipRepository friendshipRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.people.rank-window:100}") int window,
+            @Value("${app.search.people.rank-ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.search.people.rank-max-size:10000}") long maxSize) {
+        this.friendshipRepository = friendshipRepository;
+        this.window = window;
+        this.rankings = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rankings, "peopleSearchRankings");
+    }
+
+    /**
+     * Number of leading results to re-rank for pages of the given size, rounded up to
+     * whole pages so no page mixes re-ranked and plain results.
+     */
+    public int window(int pageSize) {
+        return Math.max(1, (window + pageSize - 1) / pageSize) * pageSize;
+    }
+
+    /**
+     * Orders the candidates for the viewer and fills in their mutual friend counts.
+     *
+     * @param viewerId Person searching
+     * @param query Cache key of the candidate window
+     * @param candidates Candidates in search order; modified in place
+     * @return Candidates, best first
+     */
+    public List<UserDocument> rank(Long viewerId, SearchResultCache.Key query, List<UserDocument> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        RankKey key = new RankKey(viewerId, query);
+        List<Ranked> cached = rankings.getIfPresent(key);
+        if (cached != null) {
+            return reorder(candidates, cached);
+        }
+
+        List<Long> candidateIds = candidates.stream().map(document -> Long.valueOf(document.getId())).toList();
+        // Mọi truy vấn chỉ nhận danh sách ứng viên có giới hạn, không phải danh sách bạn của viewer
+        Set<Long> friendIds = new HashSet<>(
+                friendshipRepository.findOtherUserIdsAmong(viewerId, candidateIds, FriendshipStatus.ACCEPTED));
+        Set<Long> pendingIds = new HashSet<>(
+                friendshipRepository.findOtherUserIdsAmong(viewerId, candidateIds, FriendshipStatus.PENDING));
+        Map<Long, Long> mutualCounts = mutualCounts(viewerId, candidateIds);
+
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            UserDocument candidate = candidates.get(i);
+            Long id = candidateIds.get(i);
+            long mutual = mutualCounts.getOrDefault(id, 0L);
+            candidate.setMutualFriends((int) mutual);
+
+            // Vị trí từ ES cho điểm từ 1 giảm dần về 0, các tín hiệu bạn bè cộng thêm
+            double score = 1.0 - (double) i / candidates.size();
+            if (friendIds.contains(id)) {
+                score += FRIEND_WEIGHT;
+            } else if (pendingIds.contains(id)) {
+                score += PENDING_WEIGHT;
+            }
+            score += MUTUAL_WEIGHT * Math.log1p(mutual);
+            scores.put(candidate.getId(), score);
+        }
+
+        List<UserDocument> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingDouble((UserDocument document) -> scores.get(document.getId())).reversed());
+        rankings.put(key, ranked.stream()
+                .map(document -> new Ranked(document.getId(), document.getMutualFriends()))
+                .toList());
+        return ranked;
+    }
+
+    private Map<Long, Long> mutualCounts(Long viewerId, List<Long> candidateIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (UserCount count : friendshipRepository.countMutualByRequesterIds(viewerId, candidateIds,
+                FriendshipStatus.ACCEPTED)) {
+            counts.merge(count.getUserId(), count.getCount(), Long::sum);
+        }
+        for (UserCount count : friendshipRepository.countMutualByReceiverIds(viewerId, candidateIds,
+                FriendshipStatus.ACCEPTED)) {
+            counts.merge(count.getUserId(), count.getCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    private static List<UserDocument> reorder(List<UserDocument> candidates, List<Ranked> order) {
+        Map<String, UserDocument> byId = new HashMap<>();
+        candidates.forEach(candidate -> byId.put(candidate.getId(), candidate));
+        List<UserDocument> ranked = new ArrayList<>(candidates.size());
+        for (Ranked entry : order) {
+            UserDocument candidate = byId.remove(entry.id());
+            if (candidate != null) {
+                candidate.setMutualFriends(entry.mutualFriends());
+                ranked.add(candidate);
+            }
+        }
+        // Ứng viên mới xuất hiện sau khi xếp hạng đứng cuối, theo thứ tự tìm kiếm
+        candidates.stream().filter(candidate -> byId.containsKey(candidate.getId())).forEach(ranked::add);
+        return ranked;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.backend.service;
+
+import java.time.Instant;
+
+/**
+ * Something shown in a post's search document has changed.
+ * Published inside the writing transaction and indexed by {@link PostSearchIndexer}
+ * once it commits.
+ *
+ * @param postId Changed post, or null
+ * @param authorId Author whose posts all need reindexing (profile change), or null
+ * @param includeReposts Whether reposts embedding {@code postId} need reindexing too
+ * @param affectsResults Whether the change can alter which posts a search matches, so
+ *                       cached search results must be dropped
+ * @param changedAt When the change happened, for the indexing lag metric
+ */
+public record PostChangedEvent(Long postId, Long authorId, boolean includeReposts, boolean affectsResults,
+                               Instant changedAt) {
+
+    /**
+     * A post was created, removed or otherwise changed in what searches find.
+     */
+    public static PostChangedEvent post(Long postId) {
+        return new PostChangedEvent(postId, null, false, true, Instant.now());
+    }
+
+    /**
+     * Content or visibility changes, which reposts show as well.
+     */
+    public static PostChangedEvent postAndReposts(Long postId) {
+        return new PostChangedEvent(postId, null, true, true, Instant.now());
+    }
+
+    /**
+     * Like or comment counts, shown on the post but not searched on.
+     */
+    public static PostChangedEvent counts(Long postId) {
+        return new PostChangedEvent(postId, null, false, false, Instant.now());
+    }
+
+    /**
+     * Something the post and its reposts show but searches do not match on, such as image variants.
+     */
+    public static PostChangedEvent display(Long postId) {
+        return new PostChangedEvent(postId, null, true, false, Instant.now());
+    }
+
+    public static PostChangedEvent author(Long authorId) {
+        return new PostChangedEvent(null, authorId, false, false, Instant.now());
+    }
+}
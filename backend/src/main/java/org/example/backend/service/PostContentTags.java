@@ -0,0 +1,70 @@
+package org.example.backend.service;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashtags and mentions written in a post.
+ * Hashtags are '#' followed by letters, digits or '_' and are stored lowercase with accents
+ * folded, so "#ĐàNẵng", "#đànẵng" and "#danang" are the same tag. This matches how MySQL's
+ * default accent- and case-insensitive collation compares them, so variants in one post
+ * never collide on the unique key. Users are mentioned by email, "@an@example.com", since
+ * accounts have no separate handle.
+ *
+ * @param hashtags Normalized hashtags without '#', in order of first use
+ * @param mentionedEmails Lowercase emails of mentioned users
+ */
+record PostContentTags(Set<String> hashtags, Set<String> mentionedEmails) {
+
+    static final int MAX_TAG_LENGTH = 100;
+    private static final int MAX_TAGS = 30;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Không nhận '#' nằm giữa từ hoặc trong URL như "a#b", "&#39;"
+    private static final Pattern HASHTAG = Pattern.compile("(?<![\\p{L}\\p{N}_&/])#([\\p{L}\\p{M}\\p{N}_]+)");
+    private static final Pattern MENTION = Pattern.compile(
+            "(?<![\\p{L}\\p{N}_.])@([A-Za-z0-9._%+-]+@[A-Za-z0-9-]+(?:\\.[A-Za-z0-9-]+)*\\.[A-Za-z]{2,})");
+
+    static PostContentTags parse(String content) {
+        if (content == null || content.isBlank()) {
+            return new PostContentTags(Set.of(), Set.of());
+        }
+        Set<String> hashtags = new LinkedHashSet<>();
+        Matcher hashtag = HASHTAG.matcher(content);
+        while (hashtag.find() && hashtags.size() < MAX_TAGS) {
+            String tag = normalizeHashtag(hashtag.group(1));
+            if (!tag.isEmpty() && tag.length() <= MAX_TAG_LENGTH) {
+                hashtags.add(tag);
+            }
+        }
+        Set<String> mentions = new LinkedHashSet<>();
+        Matcher mention = MENTION.matcher(content);
+        while (mention.find() && mentions.size() < MAX_TAGS) {
+            mentions.add(mention.group(1).toLowerCase(Locale.ROOT));
+        }
+        return new PostContentTags(hashtags, mentions);
+    }
+
+    /**
+     * Normalizes a hashtag as written in a post or a URL, with or without the '#'.
+     */
+    static String normalizeHashtag(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String trimmed = tag.strip();
+        if (trimmed.startsWith("#")) {
+            trimmed = trimmed.substring(1);
+        }
+        // NFKD tách dấu và đưa ký tự toàn độ rộng về dạng thường; 'đ' và 'ß' không có dấu tách rời
+        return MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFKD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT)
+                .replace("ß", "ss");
+    }
+}
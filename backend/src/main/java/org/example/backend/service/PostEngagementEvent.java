@@ -0,0 +1,39 @@
+package org.example.backend.service;
+
+import java.time.Instant;
+
+/**
+ * Someone engaged with a post, or took it back. Consumed by {@link TrendingPostsService}
+ * after the writing transaction commits. Undoing carries the time of the original
+ * engagement, so it removes exactly the decayed amount that engagement added.
+ *
+ * @param postId Post engaged with
+ * @param weight Contribution to the trending score; negative when undone
+ * @param at When the engagement happened, also for undoing it
+ */
+public record PostEngagementEvent(Long postId, double weight, Instant at) {
+
+    private static final double LIKE = 1.0;
+    private static final double COMMENT = 2.0;
+    private static final double REPOST = 3.0;
+
+    public static PostEngagementEvent like(Long postId) {
+        return new PostEngagementEvent(postId, LIKE, Instant.now());
+    }
+
+    public static PostEngagementEvent unlike(Long postId, Instant likedAt) {
+        return new PostEngagementEvent(postId, -LIKE, likedAt);
+    }
+
+    public static PostEngagementEvent comment(Long postId) {
+        return new PostEngagementEvent(postId, COMMENT, Instant.now());
+    }
+
+    public static PostEngagementEvent uncomment(Long postId, Instant commentedAt) {
+        return new PostEngagementEvent(postId, -COMMENT, commentedAt);
+    }
+
+    public static PostEngagementEvent repost(Long postId) {
+        return new PostEngagementEvent(postId, REPOST, Instant.now());
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.PostCount;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.entity.Post;
+import org.example.backend.mapper.PostMapper;
+import org.example.backend.metrics.SearchIndexMetrics;
+import org.example.backend.repository.CommentRepository;
+import org.example.backend.repository.LikeRepository;
+import org.example.backend.repository.PostRepository;
+import org.example.backend.search.SearchBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the posts index in step with MySQL.
+ * {@link PostChangedEvent}s are collected after commit and coalesced by post id, so a
+ * burst of likes on one post costs a single document write. One worker drains the
+ * pending ids in batches: posts, like and comment counts, hashtags, mentions and the
+ * originals of reposts are read with six queries per batch and written with one bulk
+ * request. Written documents are evicted from the {@link SearchResultCache}, and cached
+ * result lists are dropped once a change that can alter search matches has been indexed.
+ */
+@Slf4j
+@Service
+public class PostSearchIndexer {
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final SearchBackend searchBackend;
+    private final PostMapper postMapper;
+    private final PostTagService postTagService;
+    private final SearchIndexMetrics searchIndexMetrics;
+    private final SearchResultCache searchResultCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor executor;
+    private final int batchSize;
+
+    // id -> thời điểm thay đổi sớm nhất chưa được index; map tự gộp các thay đổi trùng
+    private final Map<Long, Instant> pendingPosts = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> pendingReposts = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> pendingAuthors = new ConcurrentHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean resultsStale = new AtomicBoolean();
+
+    public PostSearchIndexer(
+            PostRepository postRepository,
+            LikeRepository likeRepository,
+            CommentRepository commentRepository,
+            SearchBackend searchBackend,
+            PostMapper postMapper,
+            PostTagService postTagService,
+            SearchIndexMetrics searchIndexMetrics,
+            SearchResultCache searchResultCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.search.indexer.batch-size:200}") int batchSize) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.searchBackend = searchBackend;
+        this.postMapper = postMapper;
+        this.postTagService = postTagService;
+        this.searchIndexMetrics = searchIndexMetrics;
+        this.searchResultCache = searchResultCache;
+        this.batchSize = batchSize;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("post-indexer-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues the changed posts. Runs after commit, or straight away when published
+     * outside a transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.postId() != null) {
+            pendingPosts.merge(event.postId(), event.changedAt(), PostSearchIndexer::earliest);
+            if (event.includeReposts()) {
+                pendingReposts.merge(event.postId(), event.changedAt(), PostSearchIndexer::earliest);
+            }
+        }
+        if (event.authorId() != null) {
+            pendingAuthors.merge(event.authorId(), event.changedAt(), PostSearchIndexer::earliest);
+        }
+        if (event.affectsResults()) {
+            resultsStale.set(true);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Rebuilds every post document, walking the table by id in batches.
+     *
+     * @return Number of indexed posts
+     */
+    public int reindexAll() {
+        return reindexAll(searchBackend);
+    }
+
+    /**
+     * Rebuilds every post document into the given backend only, e.g. to fill the local index.
+     *
+     * @return Number of indexed posts
+     */
+    public int reindexAll(SearchBackend target) {
+        int total = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = postRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                searchResultCache.invalidatePostQueries();
+                return total;
+            }
+            index(ids, null, target);
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Runs {@link #reindexAll()} on the indexer thread, after any queued changes.
+     */
+    public CompletableFuture<Integer> reindexAllAsync() {
+        return reindexAllAsync(searchBackend);
+    }
+
+    public CompletableFuture<Integer> reindexAllAsync(SearchBackend target) {
+        return CompletableFuture.supplyAsync(() -> reindexAll(target), executor);
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            // Đổi bài gốc/tác giả thành danh sách bài cần index lại
+            expand(pendingReposts, postRepository::findIdsByRootPostId);
+            expand(pendingAuthors, postRepository::findIdsByUserId);
+            while (!pendingPosts.isEmpty()) {
+                // Lấy cờ trước khi lấy lô, thay đổi đến sau sẽ được xử lý ở lô kế tiếp
+                boolean stale = resultsStale.getAndSet(false);
+                Map<Long, Instant> batch = takeBatch();
+                try {
+                    index(batch.keySet(), batch.values().stream().min(Instant::compareTo).orElse(null), searchBackend);
+                } catch (RuntimeException e) {
+                    // Không thử lại để tránh vòng lặp khi ES ngừng; /api/es/sync dựng lại toàn bộ
+                    log.warn("Failed to index {} posts: {}", batch.size(), e.getMessage());
+                } finally {
+                    if (stale) {
+                        searchResultCache.invalidatePostQueries();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Post indexer failed: {}", e.getMessage());
+        } finally {
+            draining.set(false);
+            if (!pendingPosts.isEmpty() || !pendingReposts.isEmpty() || !pendingAuthors.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private void expand(Map<Long, Instant> pending, Function<Long, List<Long>> postIds) {
+        for (Iterator<Map.Entry<Long, Instant>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Instant> entry = it.next();
+            it.remove();
+            for (Long postId : postIds.apply(entry.getKey())) {
+                pendingPosts.merge(postId, entry.getValue(), PostSearchIndexer::earliest);
+            }
+        }
+    }
+
+    private Map<Long, Instant> takeBatch() {
+        Map<Long, Instant> batch = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<Long, Instant>> it = pendingPosts.entrySet().iterator();
+             it.hasNext() && batch.size() < batchSize; ) {
+            Map.Entry<Long, Instant> entry = it.next();
+            it.remove();
+            batch.put(entry.getKey(), entry.getValue());
+        }
+        return batch;
+    }
+
+    private void index(Collection<Long> ids, Instant changedAt, SearchBackend target) {
+        List<PostDocument> documents = readOnlyTransaction.execute(status -> toDocuments(ids));
+        if (documents == null) {
+            return;
+        }
+        if (!documents.isEmpty()) {
+            searchIndexMetrics.record("posts", changedAt, () -> {
+                target.savePosts(documents);
+                return null;
+            });
+        }
+        // Bài đã bị xoá hẳn khỏi MySQL thì xoá khỏi index
+        if (documents.size() < ids.size()) {
+            Set<String> indexed = documents.stream().map(PostDocument::getId).collect(Collectors.toSet());
+            List<String> removed = ids.stream().map(String::valueOf).filter(id -> !indexed.contains(id)).toList();
+            searchIndexMetrics.record("posts", changedAt, () -> {
+                target.deletePosts(removed);
+                return null;
+            });
+        }
+        searchResultCache.evictPosts(ids.stream().map(String::valueOf).toList());
+    }
+
+    private List<PostDocument> toDocuments(Collection<Long> ids) {
+        List<Post> posts = postRepository.findWithUserAndImagesByIdIn(ids);
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> likeCounts = toMap(likeRepository.countByPostIds(ids));
+        Map<Long, Long> commentCounts = toMap(commentRepository.countByPostIds(ids));
+        Map<Long, List<String>> hashtags = postTagService.hashtagsByPostIds(ids);
+        Map<Long, List<String>> mentionedUserIds = postTagService.mentionedUserIdsByPostIds(ids);
+        Map<Long, Post> roots = findRoots(posts);
+        return posts.stream()
+                .map(post -> {
+                    Long rootId = PostMapper.rootPostId(post);
+                    PostDocument document = postMapper.toDocument(post, rootId != null ? roots.get(rootId) : null,
+                            likeCounts.getOrDefault(post.getId(), 0L),
+                            commentCounts.getOrDefault(post.getId(), 0L));
+                    document.setHashtags(hashtags.getOrDefault(post.getId(), List.of()));
+                    document.setMentionedUserIds(mentionedUserIds.getOrDefault(post.getId(), List.of()));
+                    return document;
+                })
+                .toList();
+    }
+
+    // Bài đầu chuỗi của cả lô trong một truy vấn
+    private Map<Long, Post> findRoots(List<Post> posts) {
+        Set<Long> rootIds = posts.stream()
+                .map(PostMapper::rootPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (rootIds.isEmpty()) {
+            return Map.of();
+        }
+        return postRepository.findWithUserAndImagesByIdIn(rootIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+    }
+
+    private static Map<Long, Long> toMap(List<PostCount> counts) {
+        return counts.stream().collect(Collectors.toMap(PostCount::getPostId, PostCount::getCount));
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
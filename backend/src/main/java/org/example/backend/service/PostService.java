@@ -1,28 +1,39 @@
 package org.example.backend.service;
 
 import org.example.backend.entity.Image;
+import org.example.backend.dto.HashtagCount;
+import org.example.backend.dto.ImageRow;
+import org.example.backend.dto.PostCount;
 import org.example.backend.dto.PostDTO;
+import org.example.backend.dto.PostRow;
 import org.example.backend.entity.Post;
 import org.example.backend.elasticsearch.document.PostDocument;
-import org.example.backend.elasticsearch.repository.PostESRepository;
+import org.example.backend.search.SearchBackend;
 import org.example.backend.entity.User;
 import org.example.backend.repository.CommentRepository;
+import org.example.backend.repository.ImageRepository;
 import org.example.backend.repository.LikeRepository;
 import org.example.backend.repository.PostRepository;
 import org.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.example.backend.mapper.PostMapper;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Date;
-import java.util.Comparator;
+import java.util.function.Function;
 
 @Service
 public class PostService {
@@ -31,7 +42,7 @@ public class PostService {
     @Autowired
     private PostRepository postRepository;
     @Autowired
-    private PostESRepository postESRepository;
+    private SearchBackend searchBackend;
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -39,7 +50,21 @@ public class PostService {
     @Autowired
     private CommentRepository commentRepository; // Inject CommentRepository
     @Autowired
+    private ImageRepository imageRepository;
+    @Autowired
     private PostMapper postMapper;
+    @Autowired
+    private PostSearchIndexer postSearchIndexer;
+    @Autowired
+    private SearchResultCache searchResultCache;
+    @Autowired
+    private PostTagService postTagService;
+    @Autowired
+    private HashtagTrends hashtagTrends;
+    @Autowired
+    private TrendingPostsService trendingPostsService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public User getCurrentUser(String email) {
         return userRepository.findByEmail(email)
@@ -50,10 +75,7 @@ public class PostService {
     @Transactional(readOnly = true)
     public List<PostDTO> getAllPostDtos(String currentUserEmail) {
         User currentUser = getCurrentUser(currentUserEmail);
-        List<Post> posts = postRepository.findByIsDeletedFalse();
-        return posts.stream()
-                .map(post -> postMapper.toDto(post, currentUser))
-                .collect(Collectors.toList());
+        return toRowDtos(postRepository.findAllVisibleRows(), currentUser);
     }
 
     @Transactional(readOnly = true)
@@ -72,7 +94,7 @@ public class PostService {
     }
 
     public List<Post> getAllPosts() {
-        return postRepository.findAll();
+        return postRepository.findAllWithUser();
     }
 
     // No changes needed in this file, the method is already there
@@ -94,7 +116,8 @@ public class PostService {
         }
 
         post = postRepository.save(post);
-        savePostToES(post.getId());
+        postTagService.sync(post);
+        eventPublisher.publishEvent(PostChangedEvent.post(post.getId()));
 
         return post;
     }
@@ -137,15 +160,24 @@ public class PostService {
 
         try {
             final Post updatedPost = postRepository.save(existingPost);
-            savePostToES(updatedPost.getId());
+            postTagService.sync(updatedPost);
+            eventPublisher.publishEvent(PostChangedEvent.postAndReposts(updatedPost.getId()));
             return updatedPost;
         } catch (Exception e) {
             throw new RuntimeException("Error saving updated post: " + e.getMessage());
         }
     }
 
+    @Transactional
     public void deletePost(Long id) {
+        Optional<Post> post = postRepository.findById(id);
+        boolean visible = post.map(existing -> !existing.isDeleted()).orElse(false);
+        postTagService.removePost(id, visible);
+        if (visible) {
+            repostVisibilityChanged(post.get(), false);
+        }
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(PostChangedEvent.post(id));
     }
 
     @Transactional(readOnly = true)
@@ -164,30 +196,46 @@ public class PostService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         User currentUser = getCurrentUser(currentUserEmail);
 
-        List<Post> posts = postRepository.findByUserIdAndIsDeletedFalse(user.getId());
-        posts.sort(Comparator.comparing(Post::getCreatedAt).reversed());
-        return posts.stream()
-                .map(post -> postMapper.toDto(post, currentUser))
-                .collect(Collectors.toList());
+        return toRowDtos(postRepository.findVisibleRowsByUserId(user.getId()), currentUser);
     }
 
-    public List<Post> getReposts(Long originalPostId) {
-        return postRepository.findByOriginalPostId(originalPostId);
+    /**
+     * Visible reposts of the post shown by the given post's card, newest first. Reposts
+     * of reposts count towards the first post of the chain, so they are listed too.
+     */
+    @Transactional(readOnly = true)
+    public List<PostDTO> getReposts(Long postId, User user, int page, int size) {
+        PostRow post = getPostRowOrThrow(postId);
+        Long rootId = post.chainRootId();
+        List<PostRow> reposts = postRepository.findVisibleRowsByRootPostId(
+                rootId != null ? rootId : post.id(), PageRequest.of(page, size));
+        return toRowDtos(reposts, user);
     }
 
+    /**
+     * Reposts a post. Reposting a repost keeps it as the direct original and records the
+     * first post of its chain as the root, which is what the repost card shows and whose
+     * repost counter is incremented.
+     */
+    @Transactional
     public Post createRepost(Long originalPostId, String email, String content) {
         User user = getCurrentUser(email);
         Post originalPost = postRepository.findById(originalPostId)
                 .orElseThrow(() -> new RuntimeException("Original post not found"));
+        Long rootId = PostMapper.rootPostId(originalPost);
 
         Post repost = Post.builder()
                 .content(content)
                 .user(user)
                 .originalPost(originalPost)
+                .rootPostId(rootId != null ? rootId : originalPost.getId())
                 .build();
 
         repost = postRepository.save(repost);
-        savePostToES(repost.getId());
+        postTagService.sync(repost);
+        repostVisibilityChanged(repost, true);
+        eventPublisher.publishEvent(PostChangedEvent.post(repost.getId()));
+        eventPublisher.publishEvent(PostEngagementEvent.repost(repost.getRootPostId()));
 
         return repost;
     }
@@ -195,58 +243,180 @@ public class PostService {
     // Method to get PostDTO by ID, including like status for the current user
     @Transactional(readOnly = true) // Use readOnly transaction
     public PostDTO getPostDtoById(Long postId, String currentUserEmail) {
-        Post post = getPostByIdOrThrow(postId);
+        PostRow post = getPostRowOrThrow(postId);
         User currentUser = getCurrentUser(currentUserEmail);
+        return toRowDtos(List.of(post), currentUser).get(0);
+    }
 
-        // Check if the current user liked this post
-        // boolean likedByCurrentUser = likeRepository.findByUserAndPost(currentUser,
-        // post).isPresent();
-
-        // Get counts
-        // Use the helper method for conversion
-        return postMapper.toDto(post, currentUser);
+    private PostRow getPostRowOrThrow(Long id) {
+        return postRepository.findRowsByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
     }
 
     @Transactional
     public void softDeletePost(Long postId) {
         Post post = getPostByIdOrThrow(postId);
+        boolean wasVisible = !post.isDeleted();
         post.setDeleted(true);
         post.setDeletedAt(new Date());
         postRepository.save(post);
-        savePostToES(postId);
+        if (wasVisible) {
+            postTagService.visibilityChanged(postId, false);
+            repostVisibilityChanged(post, false);
+        }
+        eventPublisher.publishEvent(PostChangedEvent.postAndReposts(postId));
+    }
+
+    /**
+     * Searches posts and renders the hits from their documents.
+     * The only database read is one batched lookup of which hits the user liked.
+     */
+    @Transactional(readOnly = true)
+    public Page<PostDTO> searchPostDtos(String keyword, User user, int page, int size) {
+        Page<PostDocument> documents = searchPosts(keyword, user, page, size);
+        return new PageImpl<>(toDtos(documents.getContent(), user), documents.getPageable(),
+                documents.getTotalElements());
+    }
+
+    /**
+     * Visible posts using a hashtag, newest first. The post ids come from the hashtag
+     * table's index and are rendered from their search documents like search results.
+     */
+    @Transactional(readOnly = true)
+    public Page<PostDTO> getPostDtosByHashtag(String tag, User user, int page, int size) {
+        return toDtoPage(postTagService.findPostIdsByHashtag(tag, PageRequest.of(page, size)), user);
     }
 
+    /**
+     * Visible posts mentioning the user, newest first.
+     */
+    @Transactional(readOnly = true)
+    public Page<PostDTO> getPostDtosMentioning(User user, int page, int size) {
+        return toDtoPage(postTagService.findPostIdsMentioning(user.getId(), PageRequest.of(page, size)), user);
+    }
+
+    /**
+     * Posts with the most recent engagement, best first. The ranking is shared and
+     * cached; only the liked flags are looked up per viewer.
+     */
+    @Transactional(readOnly = true)
+    public List<PostDTO> getTrendingPostDtos(User user, int limit) {
+        List<String> postIds = trendingPostsService.top(limit).stream().map(String::valueOf).toList();
+        return toDtos(searchResultCache.findPosts(postIds), user);
+    }
+
+    public List<HashtagCount> getTrendingHashtags(int limit) {
+        return hashtagTrends.top(limit);
+    }
+
+    private Page<PostDTO> toDtoPage(Page<Long> postIds, User user) {
+        List<PostDocument> documents = searchResultCache.findPosts(postIds.stream().map(String::valueOf).toList());
+        return new PageImpl<>(toDtos(documents, user), postIds.getPageable(), postIds.getTotalElements());
+    }
+
+    // Một truy vấn cho trạng thái đã thích của cả trang
+    private List<PostDTO> toDtos(List<PostDocument> documents, User user) {
+        List<Long> postIds = documents.stream()
+                .map(document -> Long.parseLong(document.getId()))
+                .toList();
+        Set<Long> likedPostIds = postIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(likeRepository.findLikedPostIds(user.getId(), postIds));
+        return documents.stream()
+                .map(document -> postMapper.toDTO(document, likedPostIds.contains(Long.parseLong(document.getId()))))
+                .toList();
+    }
+
+    /**
+     * Renders a page of projected posts. Counts, liked flags, images and the originals
+     * of reposts are each read with one query for the whole page, and no entity is
+     * loaded, so nothing is left for Hibernate to track.
+     */
+    private List<PostDTO> toRowDtos(List<PostRow> posts, User user) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> postIds = posts.stream().map(PostRow::id).toList();
+        Map<Long, Long> likeCounts = toCountMap(likeRepository.countByPostIds(postIds));
+        Map<Long, Long> commentCounts = toCountMap(commentRepository.countByPostIds(postIds));
+        Set<Long> likedPostIds = user == null
+                ? Set.of()
+                : new HashSet<>(likeRepository.findLikedPostIds(user.getId(), postIds));
+        Set<Long> rootIds = posts.stream()
+                .map(PostRow::chainRootId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, PostRow> roots = rootIds.isEmpty()
+                ? Map.of()
+                : postRepository.findRowsByIdIn(rootIds).stream()
+                        .collect(Collectors.toMap(PostRow::id, Function.identity()));
+
+        Set<Long> imageOwnerIds = new HashSet<>(postIds);
+        imageOwnerIds.addAll(roots.keySet());
+        Map<Long, List<Image>> images = imageRepository.findRowsByPostIdIn(imageOwnerIds).stream()
+                .collect(Collectors.groupingBy(ImageRow::ownerId,
+                        Collectors.mapping(ImageRow::toImage, Collectors.toList())));
+
+        return posts.stream()
+                .map(post -> {
+                    Long rootId = post.chainRootId();
+                    return postMapper.toDto(post, rootId != null ? roots.get(rootId) : null, images,
+                            likedPostIds.contains(post.id()),
+                            likeCounts.getOrDefault(post.id(), 0L),
+                            commentCounts.getOrDefault(post.id(), 0L));
+                })
+                .toList();
+    }
+
+    private static Map<Long, Long> toCountMap(List<PostCount> counts) {
+        return counts.stream().collect(Collectors.toMap(PostCount::getPostId, PostCount::getCount));
+    }
+
+    // Repost ẩn hoặc hiện lại thì số repost của bài đầu chuỗi thay đổi theo
+    private void repostVisibilityChanged(Post post, boolean visible) {
+        Long rootId = PostMapper.rootPostId(post);
+        if (rootId == null) {
+            return;
+        }
+        postRepository.addRepostCount(rootId, visible ? 1 : -1);
+        eventPublisher.publishEvent(PostChangedEvent.counts(rootId));
+    }
+
+    /**
+     * Searches posts through the {@link SearchResultCache}. Staff also see locked posts;
+     * for everyone else locked posts are filtered out again after hydration, since a
+     * cached page may predate the lock.
+     */
     public Page<PostDocument> searchPosts(String keyword, User user, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
         if (user.getIsStaff()) {
-            return postESRepository.findByContentContaining(keyword, pageable);
+            return searchResultCache.posts(SearchResultCache.Key.of(SearchResultCache.POSTS, keyword, "all", pageable),
+                    pageable, () -> searchBackend.searchPosts(keyword, true, pageable));
+        }
+        Page<PostDocument> documents = searchResultCache.posts(
+                SearchResultCache.Key.of(SearchResultCache.POSTS, keyword, "visible", pageable),
+                pageable, () -> searchBackend.searchPosts(keyword, false, pageable));
+        List<PostDocument> visible = documents.getContent().stream()
+                .filter(document -> !document.isDeleted())
+                .toList();
+        if (visible.size() == documents.getNumberOfElements()) {
+            return documents;
         }
-        return postESRepository.findByContentContainingAndIsDeletedFalse(keyword, pageable);
+        return new PageImpl<>(visible, pageable, documents.getTotalElements() - (documents.getNumberOfElements() - visible.size()));
     }
 
     @Transactional(readOnly = true)
     public Page<PostDTO> getPageOfPostDtos(String currentUserEmail, Pageable pageable) {
         User currentUser = getCurrentUser(currentUserEmail);
-        Page<Post> postPage = postRepository.findByIsDeletedFalseOrderByCreatedAtDesc(pageable);
-
-        return postPage.map(post -> postMapper.toDto(post, currentUser));
-    }
-
-    public void savePostToES(Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        PostDocument postDocument = postMapper.toDocument(post);
-        postESRepository.save(postDocument);
+        Page<PostRow> postPage = postRepository.findVisibleRows(pageable);
+        return new PageImpl<>(toRowDtos(postPage.getContent(), currentUser), postPage.getPageable(),
+                postPage.getTotalElements());
     }
 
     public void syncAllPostsToES() {
-        List<Post> posts = postRepository.findAll();
-        List<PostDocument> documents = posts.stream()
-                .map(postMapper::toDocument)
-                .toList();
-        postESRepository.saveAll(documents);
+        postSearchIndexer.reindexAll();
     }
 
 
@@ -258,19 +428,31 @@ public class PostService {
         return postRepository.countByIsDeletedTrue();
     }
 
+    @Transactional
     public void lockPost(Long postId) {
         Post post = getPostByIdOrThrow(postId);
+        boolean wasVisible = !post.isDeleted();
         post.setDeleted(true);
         post.setDeletedAt(new Date());
         postRepository.save(post);
-        savePostToES(postId);
+        if (wasVisible) {
+            postTagService.visibilityChanged(postId, false);
+            repostVisibilityChanged(post, false);
+        }
+        eventPublisher.publishEvent(PostChangedEvent.postAndReposts(postId));
     }
 
+    @Transactional
     public void unlockPost(Long postId) {
         Post post = getPostByIdOrThrow(postId);
+        boolean wasVisible = !post.isDeleted();
         post.setDeleted(false);
         post.setDeletedAt(null);
         postRepository.save(post);
-        savePostToES(postId);
+        if (!wasVisible) {
+            postTagService.visibilityChanged(postId, true);
+            repostVisibilityChanged(post, true);
+        }
+        eventPublisher.publishEvent(PostChangedEvent.postAndReposts(postId));
     }
 }
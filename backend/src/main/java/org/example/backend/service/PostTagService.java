@@ -0,0 +1,170 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.entity.Post;
+import org.example.backend.entity.PostHashtag;
+import org.example.backend.entity.PostMention;
+import org.example.backend.repository.PostHashtagRepository;
+import org.example.backend.repository.PostMentionRepository;
+import org.example.backend.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the hashtag and mention tables of a post in step with its content.
+ * Called by {@link PostService} in the writing transaction; the trending counters are
+ * adjusted once that transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTagService {
+
+    private final PostHashtagRepository postHashtagRepository;
+    private final PostMentionRepository postMentionRepository;
+    private final UserRepository userRepository;
+    private final HashtagTrends hashtagTrends;
+
+    /**
+     * Extracts hashtags and mentions from the post's content, adding new ones and
+     * removing those no longer written.
+     */
+    @Transactional
+    public void sync(Post post) {
+        PostContentTags tags = PostContentTags.parse(post.getContent());
+        LocalDateTime now = LocalDateTime.now();
+        boolean visible = !post.isDeleted();
+
+        List<PostHashtag> existingTags = postHashtagRepository.findByPostId(post.getId());
+        Set<String> kept = new HashSet<>();
+        for (PostHashtag existing : existingTags) {
+            if (tags.hashtags().contains(existing.getTag())) {
+                kept.add(existing.getTag());
+            } else {
+                postHashtagRepository.delete(existing);
+                if (visible) {
+                    afterCommit(() -> hashtagTrends.remove(existing.getTag(), existing.getCreatedAt()));
+                }
+            }
+        }
+        // Hibernate chèn trước khi xoá khi flush; xoá trước để hashtag cũ viết khác không trùng khoá với hashtag mới
+        if (kept.size() < existingTags.size()) {
+            postHashtagRepository.flush();
+        }
+        List<PostHashtag> added = tags.hashtags().stream()
+                .filter(tag -> !kept.contains(tag))
+                .map(tag -> PostHashtag.builder().postId(post.getId()).tag(tag).createdAt(now).build())
+                .toList();
+        postHashtagRepository.saveAll(added);
+        if (visible) {
+            afterCommit(() -> added.forEach(tag -> hashtagTrends.add(tag.getTag(), tag.getCreatedAt())));
+        }
+
+        Set<Long> mentionedIds = tags.mentionedEmails().isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findIdsByEmailIn(tags.mentionedEmails()));
+        // Tự nhắc đến mình thì bỏ qua
+        mentionedIds.remove(post.getUser().getId());
+        Set<Long> alreadyMentioned = new HashSet<>();
+        for (PostMention existing : postMentionRepository.findByPostId(post.getId())) {
+            if (mentionedIds.contains(existing.getUserId())) {
+                alreadyMentioned.add(existing.getUserId());
+            } else {
+                postMentionRepository.delete(existing);
+            }
+        }
+        postMentionRepository.saveAll(mentionedIds.stream()
+                .filter(userId -> !alreadyMentioned.contains(userId))
+                .map(userId -> PostMention.builder().postId(post.getId()).userId(userId).createdAt(now).build())
+                .toList());
+    }
+
+    /**
+     * Moves the post's hashtags in or out of the trending counts when it is locked,
+     * soft deleted or unlocked.
+     */
+    @Transactional(readOnly = true)
+    public void visibilityChanged(Long postId, boolean visible) {
+        List<PostHashtag> tags = postHashtagRepository.findByPostId(postId);
+        afterCommit(() -> tags.forEach(tag -> {
+            if (visible) {
+                hashtagTrends.add(tag.getTag(), tag.getCreatedAt());
+            } else {
+                hashtagTrends.remove(tag.getTag(), tag.getCreatedAt());
+            }
+        }));
+    }
+
+    /**
+     * Deletes the rows of a post that is being removed for good.
+     *
+     * @param visible Whether the post still counted towards trending
+     */
+    @Transactional
+    public void removePost(Long postId, boolean visible) {
+        List<PostHashtag> tags = postHashtagRepository.findByPostId(postId);
+        postHashtagRepository.deleteByPostId(postId);
+        postMentionRepository.deleteByPostId(postId);
+        if (visible) {
+            afterCommit(() -> tags.forEach(tag -> hashtagTrends.remove(tag.getTag(), tag.getCreatedAt())));
+        }
+    }
+
+    /**
+     * Ids of visible posts using the hashtag, newest first.
+     */
+    @Transactional(readOnly = true)
+    public Page<Long> findPostIdsByHashtag(String tag, Pageable pageable) {
+        return postHashtagRepository.findVisiblePostIds(PostContentTags.normalizeHashtag(tag), pageable);
+    }
+
+    /**
+     * Ids of visible posts mentioning the user, newest first.
+     */
+    @Transactional(readOnly = true)
+    public Page<Long> findPostIdsMentioning(Long userId, Pageable pageable) {
+        return postMentionRepository.findVisiblePostIds(userId, pageable);
+    }
+
+    /**
+     * Hashtags of each post, for building search documents in batch.
+     */
+    public Map<Long, List<String>> hashtagsByPostIds(Collection<Long> postIds) {
+        return postHashtagRepository.findByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(PostHashtag::getPostId,
+                        Collectors.mapping(PostHashtag::getTag, Collectors.toList())));
+    }
+
+    /**
+     * Mentioned user ids of each post, for building search documents in batch.
+     */
+    public Map<Long, List<String>> mentionedUserIdsByPostIds(Collection<Long> postIds) {
+        return postMentionRepository.findByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(PostMention::getPostId,
+                        Collectors.mapping(mention -> mention.getUserId().toString(), Collectors.toList())));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.backend.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.security.JwtUtil;
+import org.example.backend.security.RefreshTokenRevocationStore;
+import org.example.backend.security.UserRoleCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens without a database lookup.
+ * A refresh token is valid when its signature and expiry check out and the
+ * {@link RefreshTokenRevocationStore} has not revoked it. Every refresh marks the
+ * presented token as used and hands out a new one in the same family; presenting a
+ * used token again outside the grace period revokes the whole family.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public enum Outcome {
+        ROTATED,
+        EXPIRED,
+        INVALID,
+        REVOKED,
+        REUSED
+    }
+
+    public record RefreshResult(Outcome outcome, String accessToken, String refreshToken) {
+
+        public boolean isSuccess() {
+            return outcome == Outcome.ROTATED;
+        }
+
+        public Map<String, String> tokens() {
+            return Map.of("accessToken", accessToken, "refreshToken", refreshToken);
+        }
+
+        static RefreshResult failed(Outcome outcome) {
+            return new RefreshResult(outcome, null, null);
+        }
+    }
+
+    private final JwtUtil jwtUtil;
+    private final RefreshTokenRevocationStore revocationStore;
+    private final UserRoleCache userRoleCache;
+    private final MeterRegistry meterRegistry;
+    private final long reuseGraceSeconds;
+
+    public RefreshTokenService(
+            JwtUtil jwtUtil,
+            RefreshTokenRevocationStore revocationStore,
+            UserRoleCache userRoleCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.refresh.reuse-grace-seconds:10}") long reuseGraceSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.revocationStore = revocationStore;
+        this.userRoleCache = userRoleCache;
+        this.meterRegistry = meterRegistry;
+        this.reuseGraceSeconds = reuseGraceSeconds;
+    }
+
+    /**
+     * Starts a new session for the user, invalidating the refresh tokens issued before it.
+     *
+     * @param email The user's email
+     * @return A refresh token in a new family
+     */
+    public String issue(String email) {
+        revocationStore.revokeSubject(email);
+        return jwtUtil.generateRefreshToken(email);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     *
+     * @param refreshToken The presented refresh token
+     * @return The outcome, with both tokens on success
+     */
+    public RefreshResult rotate(String refreshToken) {
+        RefreshResult result = doRotate(refreshToken);
+        meterRegistry.counter("auth.refresh", "outcome", result.outcome().name().toLowerCase()).increment();
+        return result;
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public void revokeAll(String email) {
+        if (email != null) {
+            revocationStore.revokeSubject(email);
+        }
+    }
+
+    private RefreshResult doRotate(String refreshToken) {
+        Claims claims;
+        UUID tokenId;
+        UUID familyId;
+        try {
+            claims = jwtUtil.getRefreshClaims(refreshToken);
+            tokenId = UUID.fromString(claims.getId());
+            familyId = UUID.fromString(claims.get(JwtUtil.FAMILY_CLAIM, String.class));
+        } catch (ExpiredJwtException e) {
+            return RefreshResult.failed(Outcome.EXPIRED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return RefreshResult.failed(Outcome.INVALID);
+        }
+
+        String email = claims.getSubject();
+        if (revocationStore.isFamilyRevoked(familyId)
+                || revocationStore.isRevokedForSubject(email, JwtUtil.getIssuedAt(claims))) {
+            return RefreshResult.failed(Outcome.REVOKED);
+        }
+
+        // Tài khoản bị khoá không được làm mới token
+        Optional<UserRoleCache.UserRole> role = userRoleCache.get(email);
+        if (role.isEmpty() || !role.get().active()) {
+            return RefreshResult.failed(Outcome.REVOKED);
+        }
+
+        long usedAt = revocationStore.markUsed(tokenId);
+        if (usedAt >= 0 && Instant.now().getEpochSecond() - usedAt > reuseGraceSeconds) {
+            // Token đã dùng bị đưa ra lại: coi như bị lộ, thu hồi cả phiên
+            revocationStore.revokeFamily(familyId);
+            log.warn("Refresh token reuse detected for {}, family {} revoked", email, familyId);
+            return RefreshResult.failed(Outcome.REUSED);
+        }
+
+        // Trong thời gian ân hạn (vd. hai tab cùng refresh) vẫn cấp token mới cùng họ
+        return new RefreshResult(Outcome.ROTATED,
+                jwtUtil.generateAccessToken(email, role.get().staff()),
+                jwtUtil.generateRefreshToken(email, familyId.toString()));
+    }
+}
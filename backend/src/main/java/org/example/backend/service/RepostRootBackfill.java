@@ -0,0 +1,62 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.RepostLink;
+import org.example.backend.repository.PostRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills {@code root_post_id} and {@code repost_count} for reposts created before the
+ * columns existed. Runs on startup and does nothing once every repost has a root.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RepostRootBackfill {
+
+    private final PostRepository postRepository;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!postRepository.existsByOriginalPostIsNotNullAndRootPostIdIsNull()) {
+            return;
+        }
+        List<RepostLink> links = postRepository.findRepostLinks();
+        Map<Long, Long> originalOf = new HashMap<>();
+        links.forEach(link -> originalOf.put(link.postId(), link.originalPostId()));
+
+        Map<Long, List<Long>> idsByRoot = new HashMap<>();
+        Map<Long, Long> visibleReposts = new HashMap<>();
+        for (RepostLink link : links) {
+            Long root = resolveRoot(link.postId(), originalOf);
+            if (!root.equals(link.rootPostId())) {
+                idsByRoot.computeIfAbsent(root, key -> new ArrayList<>()).add(link.postId());
+            }
+            if (!link.deleted()) {
+                visibleReposts.merge(root, 1L, Long::sum);
+            }
+        }
+        idsByRoot.forEach(postRepository::setRootPostId);
+        visibleReposts.forEach(postRepository::setRepostCount);
+        log.info("Resolved the root post of {} reposts", idsByRoot.values().stream().mapToInt(List::size).sum());
+    }
+
+    // Đi ngược chuỗi repost tới bài không phải repost; giới hạn số bước phòng dữ liệu vòng
+    private static Long resolveRoot(Long postId, Map<Long, Long> originalOf) {
+        Long current = postId;
+        for (int steps = 0; steps <= originalOf.size() && originalOf.containsKey(current); steps++) {
+            current = originalOf.get(current);
+        }
+        return current;
+    }
+}
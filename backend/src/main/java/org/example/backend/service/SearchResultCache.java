@@ -0,0 +1,177 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.search.SearchBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches search results as id lists, plus the documents behind them.
+ * A repeated query is answered from the id list and the document cache, fetching
+ * only documents that are missing by id instead of running the search again.
+ * The indexing side keeps it honest: writing a document evicts it, and changes that
+ * can alter which documents match or their order drop the cached id lists of that
+ * index. A generation counter stops a search that overlapped such a change from
+ * caching its now stale result.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String POSTS = "posts";
+    public static final String USERS = "users";
+
+    /**
+     * Normalized query, effective filters and page of a search.
+     */
+    public record Key(String index, String query, String filters, int page, int size) {
+
+        public static Key of(String index, String query, String filters, Pageable pageable) {
+            return new Key(index, normalize(query), filters, pageable.getPageNumber(), pageable.getPageSize());
+        }
+    }
+
+    private record IdPage(List<String> ids, long total, long generation) {
+    }
+
+    private final SearchBackend searchBackend;
+    private final Cache<Key, IdPage> queries;
+    private final Cache<String, PostDocument> posts;
+    private final Cache<String, UserDocument> users;
+    private final AtomicLong postGeneration = new AtomicLong();
+    private final AtomicLong userGeneration = new AtomicLong();
+
+    public SearchResultCache(
+            SearchBackend searchBackend,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.cache.query-ttl-seconds:15}") long queryTtlSeconds,
+            @Value("${app.search.cache.max-queries:5000}") long maxQueries,
+            @Value("${app.search.cache.document-ttl-seconds:120}") long documentTtlSeconds,
+            @Value("${app.search.cache.max-documents:20000}") long maxDocuments) {
+        this.searchBackend = searchBackend;
+        this.queries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(queryTtlSeconds))
+                .maximumSize(maxQueries)
+                .recordStats()
+                .build();
+        this.posts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(documentTtlSeconds))
+                .maximumSize(maxDocuments)
+                .recordStats()
+                .build();
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(documentTtlSeconds))
+                .maximumSize(maxDocuments)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, queries, "searchQueries");
+        CaffeineCacheMetrics.monitor(meterRegistry, posts, "searchPostDocuments");
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "searchUserDocuments");
+    }
+
+    public Page<PostDocument> posts(Key key, Pageable pageable, Supplier<Page<PostDocument>> search) {
+        return page(key, pageable, search, posts, postGeneration, PostDocument::getId, searchBackend::findPosts);
+    }
+
+    /**
+     * Returned documents are copies, callers may modify them.
+     */
+    public Page<UserDocument> users(Key key, Pageable pageable, Supplier<Page<UserDocument>> search) {
+        return page(key, pageable, search, users, userGeneration, UserDocument::getId, searchBackend::findUsers)
+                .map(document -> document.toBuilder().build());
+    }
+
+    /**
+     * Post documents by id through the document cache, in the given order; ids without a
+     * document are skipped.
+     */
+    public List<PostDocument> findPosts(List<String> ids) {
+        return hydrate(ids, posts, PostDocument::getId, searchBackend::findPosts);
+    }
+
+    public void evictPosts(Collection<String> ids) {
+        posts.invalidateAll(ids);
+    }
+
+    public void invalidatePostQueries() {
+        postGeneration.incrementAndGet();
+        queries.asMap().keySet().removeIf(key -> POSTS.equals(key.index()));
+    }
+
+    public void evictUser(String id) {
+        users.invalidate(id);
+    }
+
+    public void invalidateUserQueries() {
+        userGeneration.incrementAndGet();
+        queries.asMap().keySet().removeIf(key -> USERS.equals(key.index()));
+    }
+
+    private <T> Page<T> page(Key key, Pageable pageable, Supplier<Page<T>> search, Cache<String, T> documents,
+                             AtomicLong generation, Function<T, String> idOf,
+                             Function<List<String>, List<T>> fetch) {
+        IdPage cached = queries.getIfPresent(key);
+        if (cached != null && cached.generation() == generation.get()) {
+            return new PageImpl<>(hydrate(cached.ids(), documents, idOf, fetch), pageable, cached.total());
+        }
+
+        long started = generation.get();
+        Page<T> result = search.get();
+        List<String> ids = new ArrayList<>(result.getNumberOfElements());
+        for (T document : result.getContent()) {
+            ids.add(idOf.apply(document));
+            documents.put(idOf.apply(document), document);
+        }
+        // Có thay đổi trong lúc tìm kiếm thì không cache kết quả có thể đã cũ
+        if (generation.get() == started) {
+            queries.put(key, new IdPage(List.copyOf(ids), result.getTotalElements(), started));
+        }
+        return result;
+    }
+
+    private static <T> List<T> hydrate(List<String> ids, Cache<String, T> documents, Function<T, String> idOf,
+                                       Function<List<String>, List<T>> fetch) {
+        Map<String, T> found = new HashMap<>(documents.getAllPresent(ids));
+        if (found.size() < ids.size()) {
+            List<String> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+            for (T document : fetch.apply(missing)) {
+                found.put(idOf.apply(document), document);
+                documents.put(idOf.apply(document), document);
+            }
+        }
+        // Giữ thứ tự của kết quả gốc, bỏ qua tài liệu đã bị xoá khỏi index
+        List<T> page = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T document = found.get(id);
+            if (document != null) {
+                page.add(document);
+            }
+        }
+        return page;
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
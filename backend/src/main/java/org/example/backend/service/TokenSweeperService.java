@@ -0,0 +1,152 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.repository.OtpVerificationRepository;
+import org.example.backend.repository.PasswordResetTokenRepository;
+import org.example.backend.repository.RefreshTokenRepository;
+import org.example.backend.util.BatchThrottle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Periodically deletes expired refresh tokens, OTPs and password reset tokens.
+ * Used OTPs and reset tokens go out with the expired ones, at most a few minutes after use.
+ * Each table is walked through its expiry index in small batches with a pause between them,
+ * the same way {@link NotificationRetentionService} prunes notifications.
+ * Row counts are refreshed after every run and exposed as gauges, so table growth is
+ * visible without counting on every scrape.
+ */
+@Slf4j
+@Service
+public class TokenSweeperService {
+
+    static final String REFRESH_TOKENS = "refresh_token";
+    static final String OTPS = "otp_verification";
+    static final String RESET_TOKENS = "password_reset_token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final OtpVerificationRepository otpRepository;
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> tableSizes = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int batchSize;
+    private final long throttleMillis;
+
+    public TokenSweeperService(
+            RefreshTokenRepository refreshTokenRepository,
+            OtpVerificationRepository otpRepository,
+            PasswordResetTokenRepository resetTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.token-sweeper.enabled:true}") boolean enabled,
+            @Value("${app.token-sweeper.batch-size:500}") int batchSize,
+            @Value("${app.token-sweeper.throttle-ms:100}") long throttleMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.otpRepository = otpRepository;
+        this.resetTokenRepository = resetTokenRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.throttleMillis = throttleMillis;
+
+        for (String table : List.of(REFRESH_TOKENS, OTPS, RESET_TOKENS)) {
+            // -1 cho đến khi lần quét đầu tiên chạy xong
+            AtomicLong size = tableSizes.computeIfAbsent(table, key -> new AtomicLong(-1));
+            Gauge.builder("auth.table.rows", size, AtomicLong::get)
+                    .description("Row count at the end of the last token sweep")
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Scheduled entry point, runs every 15 minutes by default.
+     */
+    @Scheduled(cron = "${app.token-sweeper.cron:0 */15 * * * *}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int refresh = sweepRefreshTokens();
+        int otps = sweepOtps();
+        int resets = sweepResetTokens();
+        refreshTableSizes();
+        log.info("Token sweep removed {} refresh tokens, {} OTPs and {} reset tokens in {} ms",
+                refresh, otps, resets, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Deletes expired refresh tokens.
+     *
+     * @return Number of deleted rows
+     */
+    public int sweepRefreshTokens() {
+        Instant now = Instant.now();
+        return sweep(REFRESH_TOKENS, page -> refreshTokenRepository.findExpiredIds(now, page),
+                refreshTokenRepository::deleteByIdIn);
+    }
+
+    /**
+     * Deletes expired OTPs.
+     *
+     * @return Number of deleted rows
+     */
+    public int sweepOtps() {
+        LocalDateTime now = LocalDateTime.now();
+        return sweep(OTPS, page -> otpRepository.findExpiredIds(now, page), otpRepository::deleteByIdIn);
+    }
+
+    /**
+     * Deletes expired password reset tokens.
+     *
+     * @return Number of deleted rows
+     */
+    public int sweepResetTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        return sweep(RESET_TOKENS, page -> resetTokenRepository.findExpiredIds(now, page),
+                resetTokenRepository::deleteByIdIn);
+    }
+
+    private int sweep(String table, Function<Pageable, List<Long>> findExpired, Function<List<Long>, Integer> delete) {
+        Counter deleted = meterRegistry.counter("auth.table.swept", "table", table);
+        int total = 0;
+        while (true) {
+            List<Long> ids = findExpired.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            int removed = delete.apply(ids);
+            deleted.increment(removed);
+            total += removed;
+            if (ids.size() < batchSize || !BatchThrottle.pause(throttleMillis, "Token sweep")) {
+                return total;
+            }
+        }
+    }
+
+    private void refreshTableSizes() {
+        updateSize(REFRESH_TOKENS, refreshTokenRepository::count);
+        updateSize(OTPS, otpRepository::count);
+        updateSize(RESET_TOKENS, resetTokenRepository::count);
+    }
+
+    private void updateSize(String table, Supplier<Long> count) {
+        tableSizes.get(table).set(count.get());
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.entity.PostTrendScore;
+import org.example.backend.repository.PostTrendScoreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trending posts by time-decayed engagement.
+ * Every like, comment and repost adds its weight to the post's score, and scores halve
+ * every half-life. Instead of decaying every score over time, a contribution is stored
+ * scaled up by how far it is past a reference time ({@code epoch}), which keeps scores
+ * comparable without touching them; the reference is moved forward on each persistence
+ * run. The top list is taken from the scores with a bounded heap at most once per cache
+ * interval. Changed scores are written to {@code post_trend_scores} periodically and
+ * loaded back on startup.
+ */
+@Slf4j
+@Service
+public class TrendingPostsService {
+
+    private record Snapshot(List<Long> postIds, long computedAt) {
+    }
+
+    private record Scored(Long postId, double score) {
+    }
+
+    private final PostTrendScoreRepository postTrendScoreRepository;
+    private final SearchResultCache searchResultCache;
+    private final double halfLifeMillis;
+    private final double minScore;
+    private final int maxTracked;
+    private final long cacheMillis;
+    private final int maxLimit;
+
+    // id bài -> điểm quy về thời điểm epoch
+    private final Map<Long, Double> scores = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Cộng điểm giữ khoá đọc, đổi epoch giữ khoá ghi
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long epoch = System.currentTimeMillis();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), 0);
+
+    public TrendingPostsService(
+            PostTrendScoreRepository postTrendScoreRepository,
+            SearchResultCache searchResultCache,
+            @Value("${app.trending.half-life-hours:6}") double halfLifeHours,
+            @Value("${app.trending.min-score:0.05}") double minScore,
+            @Value("${app.trending.max-tracked:50000}") int maxTracked,
+            @Value("${app.trending.cache-seconds:30}") long cacheSeconds,
+            @Value("${app.trending.max-limit:50}") int maxLimit) {
+        this.postTrendScoreRepository = postTrendScoreRepository;
+        this.searchResultCache = searchResultCache;
+        this.halfLifeMillis = halfLifeHours * Duration.ofHours(1).toMillis();
+        this.minScore = minScore;
+        this.maxTracked = maxTracked;
+        this.cacheMillis = Duration.ofSeconds(cacheSeconds).toMillis();
+        this.maxLimit = maxLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            List<PostTrendScore> saved = postTrendScoreRepository.findAll();
+            lock.readLock().lock();
+            try {
+                for (PostTrendScore row : saved) {
+                    scores.merge(row.getPostId(), row.getScore() * growth(row.getScoredAt().toEpochMilli()), Double::sum);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            log.info("Loaded {} trending scores", saved.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load trending scores: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEngagement(PostEngagementEvent event) {
+        lock.readLock().lock();
+        try {
+            scores.merge(event.postId(), event.weight() * growth(event.at().toEpochMilli()), Double::sum);
+            dirty.add(event.postId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the highest scoring visible posts, best first.
+     */
+    public List<Long> top(int limit) {
+        long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (now - current.computedAt() >= cacheMillis) {
+            current = new Snapshot(compute(), now);
+            snapshot = current;
+        }
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        return current.postIds().size() > size ? current.postIds().subList(0, size) : current.postIds();
+    }
+
+    /**
+     * Moves the reference time to now, drops scores that decayed away or fell outside
+     * the tracked set, and writes the changed ones.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.persist-interval-ms:60000}",
+            initialDelayString = "${app.trending.persist-interval-ms:60000}")
+    public void persist() {
+        Instant now = Instant.now();
+        List<Long> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            double factor = Math.pow(2, -(now.toEpochMilli() - epoch) / halfLifeMillis);
+            scores.replaceAll((postId, score) -> score * factor);
+            epoch = now.toEpochMilli();
+
+            scores.forEach((postId, score) -> {
+                if (score < minScore) {
+                    removed.add(postId);
+                }
+            });
+            removed.forEach(scores::remove);
+            if (scores.size() > maxTracked) {
+                scores.entrySet().stream()
+                        .sorted(Map.Entry.comparingByValue())
+                        .limit(scores.size() - maxTracked)
+                        .map(Map.Entry::getKey)
+                        .toList()
+                        .forEach(postId -> {
+                            scores.remove(postId);
+                            removed.add(postId);
+                        });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Gỡ từng id khỏi dirty trước khi đọc điểm, thay đổi đến sau sẽ được ghi ở lần tới
+        Set<Long> changed = new HashSet<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            changed.add(it.next());
+            it.remove();
+        }
+        List<PostTrendScore> rows = new ArrayList<>();
+        for (Long postId : changed) {
+            // epoch vừa được dời về now nên điểm trong map chính là điểm tại now
+            Double score = scores.get(postId);
+            if (score != null) {
+                rows.add(new PostTrendScore(postId, score, now));
+            }
+        }
+        try {
+            postTrendScoreRepository.saveAll(rows);
+            if (!removed.isEmpty()) {
+                postTrendScoreRepository.deleteAllByIdInBatch(removed);
+            }
+        } catch (RuntimeException e) {
+            // Ghi lại ở lần sau
+            dirty.addAll(changed);
+            log.warn("Could not persist trending scores: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> compute() {
+        // Lấy dư ứng viên vì bài đã khoá hoặc đã xoá bị loại khi đối chiếu với index
+        int candidates = maxLimit * 2;
+        Comparator<Scored> byScore = Comparator.comparingDouble(Scored::score);
+        PriorityQueue<Scored> heap = new PriorityQueue<>(byScore);
+        scores.forEach((postId, score) -> {
+            if (score <= 0) {
+                return;
+            }
+            heap.offer(new Scored(postId, score));
+            if (heap.size() > candidates) {
+                heap.poll();
+            }
+        });
+        List<String> ids = heap.stream()
+                .sorted(byScore.reversed())
+                .map(scored -> scored.postId().toString())
+                .toList();
+        return searchResultCache.findPosts(ids).stream()
+                .filter(document -> !document.isDeleted())
+                .map(PostDocument::getId)
+                .map(Long::valueOf)
+                .limit(maxLimit)
+                .toList();
+    }
+
+    // Hệ số đưa một đóng góp tại thời điểm t về cùng thang với epoch hiện tại
+    private double growth(long timeMillis) {
+        return Math.pow(2, (timeMillis - epoch) / halfLifeMillis);
+    }
+}
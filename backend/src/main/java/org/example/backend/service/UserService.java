@@ -2,15 +2,18 @@ package org.example.backend.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.example.backend.elasticsearch.document.UserDocument;
-import org.example.backend.elasticsearch.repository.UserESRepository;
 import org.example.backend.entity.User;
 import org.example.backend.exception.AppException;
 import org.example.backend.exception.ErrorCode;
-import org.example.backend.repository.RefreshTokenRepository;
 import org.example.backend.repository.UserRepository;
+import org.example.backend.search.SearchBackend;
 import org.example.backend.security.JwtUtil;
+import org.example.backend.security.UserRoleCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -19,22 +22,31 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.example.backend.mapper.UserMapper;
+import org.example.backend.metrics.SearchIndexMetrics;
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final UserRoleCache userRoleCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final FileStorageService fileStorageService;
-    private final UserESRepository userESRepository;
+    private final ImageVariantService imageVariantService;
+    private final SearchBackend searchBackend;
     private final UserMapper userMapper;
+    private final SearchIndexMetrics searchIndexMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchResultCache searchResultCache;
+    private final PeopleSearchRanker peopleSearchRanker;
 
     // Tạo user mới (mã hóa mật khẩu)
     public User createUser(User user) {
@@ -45,6 +57,8 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(user.getPassword())); // Hash password
 
         user = userRepository.save(user);
+        // Email có thể đã được cache là không tồn tại trước khi đăng ký
+        userRoleCache.invalidate(user.getEmail());
         saveUserToES(user);
 
         return user;
@@ -67,25 +81,39 @@ public class UserService {
             user.setLastName(lastName);
         }
 
-        System.out.println(bio);
+        log.debug("Updating profile of {}", email);
         if (bio != null && !bio.isEmpty()) {
             user.setBio(bio);
         }
 
         // Cập nhật avatar nếu có
+        String avatarUrl = null;
         if (avatar != null && !avatar.isEmpty()) {
-            String avatarUrl = fileStorageService.saveFile(avatar);
+            avatarUrl = fileStorageService.saveFile(avatar);
             user.setAvatar(avatarUrl);
+            user.setAvatarThumbnail(null);
         }
 
         // Cập nhật background nếu có
+        String backgroundUrl = null;
         if (background != null && !background.isEmpty()) {
-            String backgroundUrl = fileStorageService.saveFile(background);
+            backgroundUrl = fileStorageService.saveFile(background);
             user.setBackground(backgroundUrl);
+            user.setBackgroundMedium(null);
         }
 
         user = userRepository.save(user);
         saveUserToES(user);
+        // Bài viết trong index chép sẵn tên và avatar của tác giả
+        eventPublisher.publishEvent(PostChangedEvent.author(user.getId()));
+
+        // Tạo ảnh thu nhỏ sau khi đã lưu để câu lệnh cập nhật tìm thấy user
+        if (avatarUrl != null) {
+            imageVariantService.generateVariantsAsync(avatarUrl);
+        }
+        if (backgroundUrl != null) {
+            imageVariantService.generateVariantsAsync(backgroundUrl);
+        }
 
         return user;
     }
@@ -102,17 +130,15 @@ public class UserService {
             }
 
             if (passwordEncoder.matches(password, user.getPassword())) {
-                // Xóa refresh token cũ (nếu có)
-                refreshTokenRepository.deleteByEmail(email);
-
-                // Tạo token mới
-                String accessToken = jwtUtil.generateAccessToken(email);
-                String refreshToken = jwtUtil.generateRefreshToken(email);
+                // Tạo token mới, refresh token cũ của user hết hiệu lực
+                String accessToken = jwtUtil.generateAccessToken(email, Boolean.TRUE.equals(user.getIsStaff()));
+                String refreshToken = refreshTokenService.issue(email);
 
                 // Cập nhật lastLogin
                 user.setLastLogin(LocalDateTime.now());
                 user = userRepository.save(user);
-                saveUserToES(user);
+                // lastLogin đổi thứ tự kết quả nhưng không đáng xoá cache tìm kiếm mỗi lần đăng nhập
+                saveUserToES(user, false);
 
                 return Map.of(
                         "accessToken", accessToken,
@@ -161,18 +187,30 @@ public class UserService {
             isActive = true;
         }
 
-        Page<UserDocument> userDocuments;
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "lastLogin"));
 
-        if (user.getIsStaff()) {
-            userDocuments = userESRepository.findByFullNameContainingIgnoreCaseAndIsStaffAndIsActive(keyword, isStaff,
-                    isActive, pageable);
-        } else {
-            userDocuments = userESRepository.findByFullNameContainingIgnoreCaseAndIsStaffAndIsActive(keyword, isStaff,
-                    true, pageable);
+        // Người thường chỉ thấy tài khoản đang hoạt động
+        Boolean effectiveIsActive = user.getIsStaff() ? isActive : Boolean.TRUE;
+        String filters = "staff=" + isStaff + ",active=" + effectiveIsActive;
+        String keywordFilter = keyword;
+
+        // Các trang đầu lấy từ nhóm ứng viên đã xếp hạng lại theo quan hệ bạn bè
+        int window = peopleSearchRanker.window(size);
+        if ((long) page * size < window) {
+            Pageable windowPageable = PageRequest.of(0, window, pageable.getSort());
+            SearchResultCache.Key windowKey = SearchResultCache.Key.of(SearchResultCache.USERS, keyword, filters,
+                    windowPageable);
+            Page<UserDocument> candidates = searchResultCache.users(windowKey, windowPageable,
+                    () -> searchBackend.searchUsers(keywordFilter, isStaff, effectiveIsActive, windowPageable));
+            List<UserDocument> ranked = peopleSearchRanker.rank(user.getId(), windowKey, candidates.getContent());
+            int from = Math.min(page * size, ranked.size());
+            int to = Math.min(from + size, ranked.size());
+            return new PageImpl<>(ranked.subList(from, to), pageable, candidates.getTotalElements());
         }
 
-        return userDocuments;
+        SearchResultCache.Key key = SearchResultCache.Key.of(SearchResultCache.USERS, keyword, filters, pageable);
+        return searchResultCache.users(key, pageable,
+                () -> searchBackend.searchUsers(keywordFilter, isStaff, effectiveIsActive, pageable));
     }
 
     private Boolean parseToBoolean(String str) {
@@ -217,7 +255,9 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         user.setIsActive(true);
-        userRepository.save(user);
+        user = userRepository.save(user);
+        userRoleCache.invalidate(user.getEmail());
+        saveUserToES(user);
         return user;
     }
 
@@ -225,7 +265,9 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         user.setIsActive(false);
-        userRepository.save(user);
+        user = userRepository.save(user);
+        userRoleCache.invalidate(user.getEmail());
+        saveUserToES(user);
         return user;
     }
 
@@ -248,17 +290,59 @@ public class UserService {
     }
 
     public void saveUserToES(User user) {
+        saveUserToES(user, true);
+    }
+
+    /**
+     * @param affectsResults Whether the change can alter which users a search matches,
+     *                       in which case cached user searches are dropped
+     */
+    public void saveUserToES(User user, boolean affectsResults) {
+        Instant changedAt = Instant.now();
         UserDocument userDocument = userMapper.toDocument(user);
-        userESRepository.save(userDocument);
+        searchIndexMetrics.record("users", changedAt, () -> {
+            searchBackend.saveUsers(List.of(userDocument));
+            return null;
+        });
+        searchResultCache.evictUser(userDocument.getId());
+        if (affectsResults) {
+            searchResultCache.invalidateUserQueries();
+        }
     }
 
-    public void saveAllUsersToES() {
-        List<User> users = userRepository.findAll();
-        List<UserDocument> userDocuments = users.stream()
-                .map(userMapper::toDocument)
-                .toList();
+    /**
+     * Reindexes every user, reading and writing in batches.
+     *
+     * @return Number of indexed users
+     */
+    public int saveAllUsersToES() {
+        return saveAllUsersTo(searchBackend);
+    }
 
-        userESRepository.saveAll(userDocuments);
+    /**
+     * Reindexes every user into the given backend only, e.g. to fill the local index.
+     *
+     * @return Number of indexed users
+     */
+    public int saveAllUsersTo(SearchBackend target) {
+        int total = 0;
+        long afterId = 0;
+        while (true) {
+            List<User> users = userRepository.findBatchAfter(afterId, PageRequest.of(0, 500));
+            if (users.isEmpty()) {
+                searchResultCache.invalidateUserQueries();
+                return total;
+            }
+            List<UserDocument> userDocuments = users.stream()
+                    .map(userMapper::toDocument)
+                    .toList();
+            searchIndexMetrics.record("users", null, () -> {
+                target.saveUsers(userDocuments);
+                return null;
+            });
+            total += users.size();
+            afterId = users.get(users.size() - 1).getId();
+        }
     }
 
     public Long countAllUsers() {
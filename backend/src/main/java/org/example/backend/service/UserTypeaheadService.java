@@ -0,0 +1,86 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.dto.UserSuggestion;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.search.SearchBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Search-as-you-type for people.
+ * Lookups hit the edge n-gram subfield of the users index and return a tiny projection.
+ * Results are cached per normalized prefix for a few seconds; Caffeine's frequency-based
+ * admission keeps the popular prefixes (the first letters everyone types) resident while
+ * one-off prefixes age out.
+ */
+@Service
+public class UserTypeaheadService {
+
+    private static final int MAX_PREFIX_LENGTH = 50;
+
+    private final SearchBackend searchBackend;
+    // Luôn cache đủ maxLimit kết quả để mọi limit dùng chung một entry
+    private final Cache<String, List<UserSuggestion>> cache;
+    private final int maxLimit;
+
+    public UserTypeaheadService(
+            SearchBackend searchBackend,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.typeahead.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.search.typeahead.max-size:10000}") long maxSize,
+            @Value("${app.search.typeahead.max-limit:10}") int maxLimit) {
+        this.searchBackend = searchBackend;
+        this.maxLimit = maxLimit;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userTypeahead");
+    }
+
+    /**
+     * Suggests active users whose name has words starting with the typed text.
+     *
+     * @param query Text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, best match first; empty for a blank query
+     */
+    public List<UserSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        List<UserSuggestion> suggestions = cache.get(prefix, this::load);
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        return suggestions.size() > size ? suggestions.subList(0, size) : suggestions;
+    }
+
+    private List<UserSuggestion> load(String prefix) {
+        return searchBackend.suggestUsers(prefix, maxLimit).stream()
+                .map(UserTypeaheadService::toSuggestion)
+                .toList();
+    }
+
+    private static UserSuggestion toSuggestion(UserDocument document) {
+        String avatar = document.getAvatarThumbnail() != null ? document.getAvatarThumbnail() : document.getAvatar();
+        return new UserSuggestion(Long.valueOf(document.getId()), document.getEmail(),
+                document.getFirstName() + " " + document.getLastName(), avatar);
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String prefix = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return prefix.length() > MAX_PREFIX_LENGTH ? prefix.substring(0, MAX_PREFIX_LENGTH) : prefix;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.backend.storage;
+
+import lombok.Getter;
+
+/**
+ * Fixed image sizes generated next to every uploaded image.
+ */
+@Getter
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160),
+    MEDIUM("medium", 720);
+
+    private static final String CLOUDINARY_UPLOAD = "/image/upload/";
+
+    private final String name;
+    private final int maxWidth;
+
+    ImageVariant(String name, int maxWidth) {
+        this.name = name;
+        this.maxWidth = maxWidth;
+    }
+
+    /**
+     * Builds the variant URL for an image hosted on Cloudinary, which resizes on the fly.
+     *
+     * @param url Original Cloudinary URL
+     * @return The variant URL, or null if the URL is not a Cloudinary image
+     */
+    public String cloudinaryUrl(String url) {
+        if (url == null || !url.contains("res.cloudinary.com")) {
+            return null;
+        }
+        int index = url.indexOf(CLOUDINARY_UPLOAD);
+        if (index < 0) {
+            return null;
+        }
+        int split = index + CLOUDINARY_UPLOAD.length();
+        return url.substring(0, split) + "c_limit,w_" + maxWidth + ",q_auto,f_auto/" + url.substring(split);
+    }
+}
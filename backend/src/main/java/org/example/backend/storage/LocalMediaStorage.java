@@ -0,0 +1,148 @@
+package org.example.backend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store under the local uploads directory.
+ * Files live at {@code cas/ab/cd/<sha256>.<ext>}, so identical uploads share one blob
+ * and the hash in the path doubles as a strong validator when serving.
+ */
+@Slf4j
+@Primary
+@Component
+public class LocalMediaStorage implements MediaStorage {
+
+    public static final String URL_PREFIX = "/uploads/";
+    public static final String CAS_DIR = "cas";
+    public static final String VARIANTS_DIR = "variants";
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final Pattern CAS_URL = Pattern.compile(
+            "^/uploads/cas/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,10})?$");
+    private static final Pattern VARIANT_PATH = Pattern.compile(
+            "^variants/([a-z]+)/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.jpg$");
+
+    private final Path uploadPath;
+
+    public LocalMediaStorage(@Value("${app.upload.dir:${user.dir}/uploads}") String uploadDir) {
+        this.uploadPath = Paths.get(uploadDir);
+    }
+
+    @Override
+    public String store(StagedUpload upload, String folder) throws IOException {
+        String relative = relativePath(upload.getSha256(), upload.getExtension());
+        Path target = uploadPath.resolve(relative);
+
+        if (Files.exists(target)) {
+            // Đã có blob cùng nội dung: bỏ bản tạm, làm mới mtime để GC không xoá nhầm
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug("Deduplicated upload {} -> {}", upload.getOriginalFilename(), relative);
+        } else {
+            upload.moveTo(target);
+        }
+        return URL_PREFIX + relative;
+    }
+
+    /**
+     * Root of the content-addressed blobs.
+     */
+    public Path getCasRoot() {
+        return uploadPath.resolve(CAS_DIR);
+    }
+
+    /**
+     * Resolves a content-addressed URL to the blob on disk.
+     *
+     * @param url A URL returned by {@link #store}
+     * @return The blob path, or empty if the URL is not content addressed
+     */
+    public Optional<Path> resolve(String url) {
+        return hashOf(url).map(hash -> uploadPath.resolve(url.substring(URL_PREFIX.length())));
+    }
+
+    /**
+     * Resolves a path below the uploads directory for serving.
+     *
+     * @param relativePath Path after {@code /uploads/}
+     * @return The file, or empty if the path escapes the uploads directory
+     */
+    public Optional<Path> resolvePublic(String relativePath) {
+        Path root = uploadPath.toAbsolutePath().normalize();
+        Path file = root.resolve(relativePath).normalize();
+        return file.startsWith(root) && !file.equals(root) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Strong validator for a served path, derived from the content hash.
+     *
+     * @param relativePath Path after {@code /uploads/}
+     * @return The hash (suffixed with the variant name for variants), or empty for legacy files
+     */
+    public static Optional<String> contentTag(String relativePath) {
+        Optional<String> hash = hashOf(URL_PREFIX + relativePath);
+        if (hash.isPresent()) {
+            return hash;
+        }
+        var matcher = VARIANT_PATH.matcher(relativePath);
+        return matcher.matches() ? Optional.of(matcher.group(2) + "-" + matcher.group(1)) : Optional.empty();
+    }
+
+    /**
+     * Location of a generated variant; variants are always JPEG.
+     */
+    public Path variantPath(String hash, ImageVariant variant) {
+        return uploadPath.resolve(variantRelativePath(hash, variant));
+    }
+
+    /**
+     * URL a generated variant is served from.
+     */
+    public String variantUrl(String hash, ImageVariant variant) {
+        return URL_PREFIX + variantRelativePath(hash, variant);
+    }
+
+    /**
+     * Maps a blob on disk back to the URL stored in entity rows.
+     *
+     * @param file A file under {@link #getCasRoot()}
+     * @return The URL the file is served from
+     */
+    public String toUrl(Path file) {
+        return URL_PREFIX + uploadPath.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * Extracts the content hash from a content-addressed URL.
+     *
+     * @param url A URL returned by {@link #store}
+     * @return The SHA-256 hash, or empty if the URL is not content addressed
+     */
+    public static Optional<String> hashOf(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        var matcher = CAS_URL.matcher(url);
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static String variantRelativePath(String hash, ImageVariant variant) {
+        return VARIANTS_DIR + "/" + variant.getName() + "/" + hash.substring(0, 2) + "/"
+                + hash.substring(2, 4) + "/" + hash + ".jpg";
+    }
+
+    private static String relativePath(String hash, String extension) {
+        String name = SAFE_EXTENSION.matcher(extension).matches() ? hash + "." + extension : hash;
+        return CAS_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + name;
+    }
+}
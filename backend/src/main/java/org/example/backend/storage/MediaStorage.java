@@ -0,0 +1,22 @@
+package org.example.backend.storage;
+
+import java.io.IOException;
+
+/**
+ * A place where staged uploads end up.
+ * Implementations are content addressed: the same bytes always map to the same
+ * location, so uploading a file twice stores it once.
+ */
+public interface MediaStorage {
+
+    /**
+     * Stores a staged upload and returns the URL it can be served from.
+     * The staged file is consumed; callers should still close it.
+     *
+     * @param upload The staged upload
+     * @param folder Logical folder, used by backends that group files
+     * @return URL of the stored file
+     * @throws IOException If the file cannot be stored
+     */
+    String store(StagedUpload upload, String folder) throws IOException;
+}
@@ -0,0 +1,67 @@
+package org.example.backend.storage;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An upload that has been fully written to the staging directory.
+ * Size and SHA-256 hash are known once the request body has been consumed,
+ * so storage backends can decide what to do without reading the file again.
+ */
+@Getter
+public class StagedUpload implements AutoCloseable {
+
+    private final Path path;
+    private final long size;
+    private final String sha256;
+    private final String originalFilename;
+    private final String contentType;
+
+    public StagedUpload(Path path, long size, String sha256, String originalFilename, String contentType) {
+        this.path = path;
+        this.size = size;
+        this.sha256 = sha256;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Returns the lower-case extension of the original file name, or an empty string.
+     */
+    public String getExtension() {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        return dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase() : "";
+    }
+
+    /**
+     * Moves the staged file to its final location.
+     *
+     * @param target Destination path
+     * @throws IOException If the file cannot be moved
+     */
+    public void moveTo(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Thư mục tạm nằm trên ổ khác thì chép rồi xoá
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the staged file if it has not been moved away.
+     */
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
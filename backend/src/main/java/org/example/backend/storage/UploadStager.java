@@ -0,0 +1,97 @@
+package org.example.backend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Streams multipart uploads to the staging directory.
+ * The request body is copied chunk by chunk into a file channel, so an upload
+ * never sits in the heap as a whole. The size limit is checked while copying and
+ * the SHA-256 hash is computed on the same pass.
+ */
+@Slf4j
+@Component
+public class UploadStager {
+
+    // Kích thước mỗi lần chuyển dữ liệu từ request sang file
+    private static final long CHUNK_SIZE = 64 * 1024;
+
+    private final Path stagingDir;
+
+    public UploadStager(@Value("${app.upload.staging-dir:${user.dir}/upload-staging}") String stagingDir) {
+        this.stagingDir = Paths.get(stagingDir);
+    }
+
+    /**
+     * Writes the upload to a staging file.
+     *
+     * @param file The uploaded file
+     * @param maxBytes Maximum allowed size in bytes
+     * @return The staged upload, to be moved or closed by the caller
+     * @throws IOException If the file is empty, too large or cannot be written
+     */
+    public StagedUpload stage(MultipartFile file, long maxBytes) throws IOException {
+        if (file.isEmpty()) {
+            throw new IOException("File is empty");
+        }
+        // Kích thước khai báo có thể sai nên vẫn kiểm tra lại trong lúc ghi
+        if (file.getSize() > maxBytes) {
+            throw new IOException(sizeLimitMessage(maxBytes));
+        }
+
+        Files.createDirectories(stagingDir);
+        Path temp = Files.createTempFile(stagingDir, "upload-", ".part");
+        MessageDigest digest = newDigest();
+        long written = 0;
+
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (true) {
+                long transferred = target.transferFrom(source, written, CHUNK_SIZE);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+                if (written > maxBytes) {
+                    throw new IOException(sizeLimitMessage(maxBytes));
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        log.debug("Staged {} ({} bytes, sha256 {})", file.getOriginalFilename(), written, hash);
+        return new StagedUpload(temp, written, hash, file.getOriginalFilename(), file.getContentType());
+    }
+
+    private static String sizeLimitMessage(long maxBytes) {
+        return "File size exceeds " + (maxBytes / (1024 * 1024)) + "MB limit";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
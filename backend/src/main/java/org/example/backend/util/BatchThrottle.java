@@ -0,0 +1,36 @@
+package org.example.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pause between the batches of a background sweep, so long deletes leave room for
+ * regular traffic on the same tables.
+ */
+@Slf4j
+public final class BatchThrottle {
+
+    private BatchThrottle() {
+    }
+
+    /**
+     * Sleeps before the next batch.
+     *
+     * @param millis Pause length; zero or less does not pause
+     * @param task Name of the sweep, for the log when it is interrupted
+     * @return false if the thread was interrupted and the sweep should stop
+     */
+    public static boolean pause(long millis, String task) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            // Giữ cờ ngắt để lịch chạy/executor bên ngoài vẫn thấy
+            Thread.currentThread().interrupt();
+            log.warn("{} interrupted", task);
+            return false;
+        }
+    }
+}
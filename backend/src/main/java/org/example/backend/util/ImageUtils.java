@@ -23,6 +23,10 @@ public class ImageUtils {
                 baseUrl + user.getAvatar() : null);
         user.setBackground((user.getBackground() != null && !user.getBackground().isEmpty()) ?
                 baseUrl + user.getBackground() : null);
+        user.setAvatarThumbnail((user.getAvatarThumbnail() != null && !user.getAvatarThumbnail().isEmpty()) ?
+                baseUrl + user.getAvatarThumbnail() : null);
+        user.setBackgroundMedium((user.getBackgroundMedium() != null && !user.getBackgroundMedium().isEmpty()) ?
+                baseUrl + user.getBackgroundMedium() : null);
         return user;
     }
 
@@ -48,6 +52,10 @@ public class ImageUtils {
                 baseUrl + user.getAvatar() : null);
         user.setBackground((user.getBackground() != null && !user.getBackground().isEmpty()) ?
                 baseUrl + user.getBackground() : null);
+        user.setAvatarThumbnail((user.getAvatarThumbnail() != null && !user.getAvatarThumbnail().isEmpty()) ?
+                baseUrl + user.getAvatarThumbnail() : null);
+        user.setBackgroundMedium((user.getBackgroundMedium() != null && !user.getBackgroundMedium().isEmpty()) ?
+                baseUrl + user.getBackgroundMedium() : null);
         return user;
     }
 
@@ -0,0 +1,149 @@
+package org.example.backend.benchmark;
+
+import org.example.backend.dto.ChatMessageDTO;
+import org.example.backend.dto.PostRow;
+import org.example.backend.entity.ChatMessage;
+import org.example.backend.entity.Image;
+import org.example.backend.entity.Post;
+import org.example.backend.entity.User;
+import org.example.backend.mapper.ChatMessageMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks.
+ * Everything derives from a fixed seed and a fixed clock so runs are comparable.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42L;
+    static final ZonedDateTime NOW = ZonedDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final String LOREM = "Hôm nay trời đẹp quá, mọi người đi cà phê không? "
+            + "Chia sẻ vài tấm ảnh từ chuyến đi Đà Lạt cuối tuần vừa rồi. ";
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@astra.test")
+                .password("{noop}password")
+                .firstName("Tên" + id)
+                .lastName("Nguyễn")
+                .avatar("/uploads/cas/ab/cd/" + hash(id) + ".jpg")
+                .background("/uploads/cas/ef/01/" + hash(id + 1_000) + ".jpg")
+                .avatarThumbnail("/uploads/variants/thumb/ab/cd/" + hash(id) + ".jpg")
+                .bio("Bio của người dùng " + id)
+                .isStaff(false)
+                .isSuperUser(false)
+                .isActive(true)
+                .dateJoined(LocalDateTime.of(2023, 6, 1, 8, 0))
+                .mutualFriends((int) (id % 7))
+                .build();
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(user(id));
+        }
+        return users;
+    }
+
+    /**
+     * A post with images and, when {@code repost} is set, an original post.
+     */
+    static Post post(long id, User author, int imageCount, boolean repost) {
+        List<Image> images = new ArrayList<>(imageCount);
+        for (int i = 0; i < imageCount; i++) {
+            String url = "https://res.cloudinary.com/astra/image/upload/v1/posts/" + hash(id * 10 + i) + ".jpg";
+            images.add(Image.builder()
+                    .id(id * 10 + i)
+                    .url(url)
+                    .build());
+        }
+        Post post = Post.builder()
+                .id(id)
+                .content(LOREM.repeat(3))
+                .user(author)
+                .images(images)
+                .createdAt(Date.from(NOW.minusMinutes(id).toInstant()))
+                .updatedAt(Date.from(NOW.toInstant()))
+                .likeCount(id * 3)
+                .totalCommentCount(id % 11)
+                .build();
+        if (repost) {
+            post.setOriginalPost(post(id + 100_000, user(id + 1), 1, false));
+            post.setRootPostId(post.getOriginalPost().getId());
+        }
+        return post;
+    }
+
+    /**
+     * The projection row the post's DTO is built from.
+     */
+    static PostRow row(Post post) {
+        User author = post.getUser();
+        return new PostRow(post.getId(), post.getContent(), post.getCreatedAt(), post.getUpdatedAt(),
+                post.isDeleted(), post.getRepostCount(),
+                post.getOriginalPost() != null ? post.getOriginalPost().getId() : null, post.getRootPostId(),
+                author.getId(), author.getEmail(), author.getFirstName(), author.getLastName(), author.getAvatar(),
+                author.getAvatarThumbnail());
+    }
+
+    /**
+     * Messages between {@code currentUser} and {@code partners} partners, newest first,
+     * as returned by the repository.
+     */
+    static List<ChatMessage> conversation(User currentUser, int partners, int messages) {
+        Random random = new Random(SEED);
+        List<User> others = new ArrayList<>(partners);
+        for (int i = 0; i < partners; i++) {
+            others.add(user(currentUser.getId() + 1 + i));
+        }
+        List<ChatMessage> result = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            User other = others.get(random.nextInt(partners));
+            boolean outgoing = random.nextBoolean();
+            result.add(ChatMessage.builder()
+                    .id((long) i)
+                    .sender(outgoing ? currentUser : other)
+                    .receiver(outgoing ? other : currentUser)
+                    .content("Tin nhắn số " + i)
+                    .timestamp(NOW.minusSeconds(i * 30L))
+                    .isRead(random.nextBoolean())
+                    .hasAttachment(false)
+                    .build());
+        }
+        return result;
+    }
+
+    static ChatMessageDTO chatMessageDto() {
+        ChatMessage message = ChatMessage.builder()
+                .id(1L)
+                .sender(user(1))
+                .receiver(user(2))
+                .content(LOREM)
+                .timestamp(NOW)
+                .fileUrl("https://res.cloudinary.com/astra/raw/upload/v1/chat_files/" + hash(7) + ".pdf")
+                .fileType("document")
+                .fileName("bao-cao.pdf")
+                .isRead(false)
+                .hasAttachment(true)
+                .attachmentType("document")
+                .build();
+        return ChatMessageMapper.toDTO(message);
+    }
+
+    private static String hash(long value) {
+        return String.format("%064x", value * 0x9E3779B97F4A7C15L & Long.MAX_VALUE);
+    }
+}
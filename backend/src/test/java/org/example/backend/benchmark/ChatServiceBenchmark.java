@@ -0,0 +1,68 @@
+package org.example.backend.benchmark;
+
+import org.example.backend.dto.ChatUserDTO;
+import org.example.backend.entity.ChatMessage;
+import org.example.backend.entity.User;
+import org.example.backend.repository.ChatMessageRepository;
+import org.example.backend.service.ChatService;
+import org.example.backend.service.UserService;
+import org.example.backend.storage.LocalMediaStorage;
+import org.example.backend.storage.UploadStager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chat sidebar assembly ({@code getChatUsers} → {@code buildChatUserList}) over a user's
+ * message history, with the repository stubbed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatServiceBenchmark {
+
+    @Param({"200", "2000"})
+    public int messages;
+
+    @Param({"20"})
+    public int partners;
+
+    private ChatService chatService;
+    private String email;
+
+    @Setup
+    public void setUp() throws Exception {
+        User currentUser = BenchmarkFixtures.user(1);
+        email = currentUser.getEmail();
+        List<ChatMessage> history = BenchmarkFixtures.conversation(currentUser, partners, messages);
+
+        ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+        UserService userService = mock(UserService.class);
+        when(userService.getUserByEmail(email)).thenReturn(Optional.of(currentUser));
+        when(chatMessageRepository.findBySenderIdOrReceiverIdOrderByTimestampDesc(anyString())).thenReturn(history);
+        when(chatMessageRepository.countByReceiverIdAndSenderIdAndIsReadFalse(anyString(), anyString())).thenReturn(3);
+
+        String uploadDir = Files.createTempDirectory("bench-uploads").toString();
+        chatService = new ChatService(chatMessageRepository, userService,
+                new UploadStager(uploadDir), new LocalMediaStorage(uploadDir), uploadDir);
+    }
+
+    @Benchmark
+    public List<ChatUserDTO> getChatUsers() {
+        return chatService.getChatUsers(email);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.backend.benchmark;
+
+import org.example.backend.dto.UserDTO;
+import org.example.backend.entity.User;
+import org.example.backend.mapper.UserMapper;
+import org.example.backend.util.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URL rewriting applied to every user shown in a response.
+ * The helpers mutate their argument, so each invocation maps a fresh DTO from the entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ImageUtilsBenchmark {
+
+    private MockHttpServletRequest request;
+    private User user;
+    private String avatar;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/users/user1@astra.test");
+        request.setScheme("https");
+        request.setServerName("api.astra.test");
+        request.setServerPort(443);
+        user = BenchmarkFixtures.user(1);
+        avatar = user.getAvatar();
+    }
+
+    @Benchmark
+    public String getBaseUrl() {
+        return ImageUtils.getBaseUrl(request);
+    }
+
+    @Benchmark
+    public String addDomainToUrl() {
+        return ImageUtils.addDomainToImage(avatar, request);
+    }
+
+    @Benchmark
+    public UserDTO addDomainToUserDto() {
+        return ImageUtils.addDomainToImage(UserMapper.toDTO(user), request);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.backend.dto.ChatMessageDTO;
+import org.example.backend.dto.PostDTO;
+import org.example.backend.entity.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an ObjectMapper built the way Spring MVC builds its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    private static final int FEED_PAGE_SIZE = 10;
+
+    private ObjectWriter writer;
+    private PostDTO post;
+    private List<PostDTO> feedPage;
+    private ChatMessageDTO chatMessage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        post = toDto(BenchmarkFixtures.post(1, BenchmarkFixtures.user(1), 4, false));
+        feedPage = new ArrayList<>(FEED_PAGE_SIZE);
+        for (long id = 1; id <= FEED_PAGE_SIZE; id++) {
+            Post source = BenchmarkFixtures.post(id, BenchmarkFixtures.user(id), (int) (id % 4), id % 3 == 0);
+            PostDTO dto = toDto(source);
+            if (source.getOriginalPost() != null) {
+                dto.setOriginalPost(toDto(source.getOriginalPost()));
+            }
+            feedPage.add(dto);
+        }
+        chatMessage = BenchmarkFixtures.chatMessageDto();
+    }
+
+    @Benchmark
+    public byte[] postDto() throws JsonProcessingException {
+        return writer.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] feedPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(feedPage);
+    }
+
+    @Benchmark
+    public byte[] chatMessageDto() throws JsonProcessingException {
+        return writer.writeValueAsBytes(chatMessage);
+    }
+
+    private static PostDTO toDto(Post post) {
+        return PostDTO.builder()
+                .id(post.getId())
+                .content(post.getContent())
+                .user(post.getUser())
+                .images(post.getImages())
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .likesCount(post.getLikeCount())
+                .commentsCount(post.getTotalCommentCount())
+                .build();
+    }
+}
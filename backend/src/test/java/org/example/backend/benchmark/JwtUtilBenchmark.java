@@ -0,0 +1,52 @@
+package org.example.backend.benchmark;
+
+import org.example.backend.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every authenticated request: signature verification and claim parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String accessToken;
+    private String email;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("");
+        email = BenchmarkFixtures.user(1).getEmail();
+        accessToken = jwtUtil.generateAccessToken(email);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(email);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(accessToken);
+    }
+
+    @Benchmark
+    public boolean isAccessToken() {
+        return jwtUtil.isAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(accessToken, email);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.backend.benchmark;
+
+import org.example.backend.dto.PostDTO;
+import org.example.backend.dto.PostRow;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.entity.Image;
+import org.example.backend.entity.Post;
+import org.example.backend.mapper.PostMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping cost of feed items. Rows, counts, images and originals are passed in the way
+ * PostService looks them up in batch, so the numbers cover mapping only; the database
+ * round trips are measured by the per-request query budget instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostMapperBenchmark {
+
+    private PostMapper postMapper;
+    private Post post;
+    private PostRow postRow;
+    private PostRow repostRow;
+    private PostRow originalRow;
+    private Map<Long, List<Image>> images;
+    private PostDocument repostDocument;
+
+    @Setup
+    public void setUp() {
+        postMapper = new PostMapper();
+
+        post = BenchmarkFixtures.post(1, BenchmarkFixtures.user(1), 4, false);
+        Post repost = BenchmarkFixtures.post(2, BenchmarkFixtures.user(2), 0, true);
+        postRow = BenchmarkFixtures.row(post);
+        repostRow = BenchmarkFixtures.row(repost);
+        originalRow = BenchmarkFixtures.row(repost.getOriginalPost());
+        images = Map.of(post.getId(), post.getImages(),
+                repost.getOriginalPost().getId(), repost.getOriginalPost().getImages());
+        repostDocument = postMapper.toDocument(repost, repost.getOriginalPost(), 12, 3);
+    }
+
+    @Benchmark
+    public PostDTO toDto() {
+        return postMapper.toDto(postRow, null, images, true, 42, 7);
+    }
+
+    @Benchmark
+    public PostDTO toDtoRepost() {
+        return postMapper.toDto(repostRow, originalRow, images, true, 42, 7);
+    }
+
+    @Benchmark
+    public PostDocument toDocument() {
+        return postMapper.toDocument(post);
+    }
+
+    @Benchmark
+    public PostDTO fromDocument() {
+        return postMapper.toDTO(repostDocument, true);
+    }
+}
@@ -0,0 +1,410 @@
+package org.example.backend.loadtest;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.backend.config.ThreadMode;
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.repository.PostESRepository;
+import org.example.backend.elasticsearch.repository.UserESRepository;
+import org.example.backend.entity.Friendship;
+import org.example.backend.entity.Like;
+import org.example.backend.entity.Post;
+import org.example.backend.entity.User;
+import org.example.backend.mapper.PostMapper;
+import org.example.backend.mapper.UserMapper;
+import org.example.backend.repository.ChatMessageRepository;
+import org.example.backend.repository.FriendshipRepository;
+import org.example.backend.repository.LikeRepository;
+import org.example.backend.repository.PostRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.security.JwtUtil;
+import org.example.backend.service.CloudinaryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.MockReset;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load scenarios against the full application on a random port.
+ * MySQL is replaced by H2 in MySQL mode, Elasticsearch by {@link SearchStandIn},
+ * and mail and Cloudinary by mocks, so the numbers cover controllers, security,
+ * services and JPA but not the external services.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -P loadtest test}.
+ * Sizes are tuned with system properties, for example
+ * {@code -Dloadtest.users=500 -Dloadtest.concurrency=32 -Dloadtest.duration-seconds=60};
+ * add {@code -Dspring.threads.virtual.enabled=true} on Java 21 to compare thread modes.
+ */
+@Slf4j
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BackendLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final int POSTS_PER_USER = Integer.getInteger("loadtest.posts-per-user", 10);
+    private static final int FRIENDS_PER_USER = Integer.getInteger("loadtest.friends-per-user", 5);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int CHAT_CLIENTS = Integer.getInteger("loadtest.chat-clients", 20);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 20));
+    // Tỉ lệ tin nhắn tối thiểu phải được lưu và giao, chừa chỗ cho tin còn trên đường khi hết thời gian chờ
+    private static final int CHAT_WINDOW = Integer.getInteger("loadtest.chat-window", 8);
+    private static final double MIN_DELIVERY_RATIO = Double.parseDouble(System.getProperty("loadtest.chat-min-delivery", "0.99"));
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(Integer.getInteger("loadtest.chat-drain-seconds", 10));
+    private static final String[] WORDS = {"astra", "sunset", "coffee", "travel", "music", "code", "football", "weekend"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+    @Autowired
+    private LikeRepository likeRepository;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PostMapper postMapper;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private ThreadMode threadMode;
+
+    @MockBean
+    private ElasticsearchClient elasticsearchClient;
+    @MockBean
+    private ElasticsearchOperations elasticsearchOperations;
+    // Stub của stand-in phải sống qua mọi kịch bản nên không reset sau mỗi test
+    @MockBean(reset = MockReset.NONE)
+    private PostESRepository postESRepository;
+    @MockBean(reset = MockReset.NONE)
+    private UserESRepository userESRepository;
+    @MockBean
+    private CloudinaryService cloudinaryService;
+    @MockBean
+    private JavaMailSender mailSender;
+
+    private final SearchStandIn search = new SearchStandIn();
+    private final List<ScenarioResult> results = new ArrayList<>();
+    private final ScenarioRunner runner = new ScenarioRunner(WARMUP, DURATION);
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private List<User> users;
+    private List<String> tokens;
+    private List<Long> postIds;
+
+    @BeforeAll
+    void seed() {
+        search.install(postESRepository, userESRepository);
+        long started = System.currentTimeMillis();
+
+        List<User> newUsers = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            newUsers.add(User.builder()
+                    .email("load" + i + "@astra.test")
+                    .password("{noop}loadtest")
+                    .firstName("Load")
+                    .lastName("User " + i)
+                    .isStaff(false)
+                    .isSuperUser(false)
+                    .isActive(true)
+                    .dateJoined(LocalDateTime.now())
+                    .build());
+        }
+        users = userRepository.saveAll(newUsers);
+        users.forEach(user -> search.indexUser(userMapper.toDocument(user)));
+        tokens = users.stream().map(user -> jwtUtil.generateAccessToken(user.getEmail())).toList();
+
+        // Mỗi người là bạn với vài người kế tiếp để danh sách bạn và gợi ý đều có dữ liệu
+        List<Friendship> friendships = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            for (int k = 1; k <= FRIENDS_PER_USER && i + k < USERS; k++) {
+                friendships.add(Friendship.builder()
+                        .requester(users.get(i))
+                        .receiver(users.get(i + k))
+                        .status(Friendship.FriendshipStatus.ACCEPTED)
+                        .active(true)
+                        .createdAt(LocalDateTime.now())
+                        .acceptedAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        friendshipRepository.saveAll(friendships);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < USERS * POSTS_PER_USER; i++) {
+            posts.add(Post.builder()
+                    .user(users.get(i % USERS))
+                    .content(WORDS[random.nextInt(WORDS.length)] + " post " + i + " " + WORDS[random.nextInt(WORDS.length)])
+                    .isDeleted(false)
+                    .build());
+        }
+        posts = postRepository.saveAll(posts);
+
+        // Một phần mười là repost để feed có cả bài gốc lồng bên trong
+        List<Post> reposts = new ArrayList<>();
+        for (int i = 0; i < posts.size() / 10; i++) {
+            Post original = posts.get(random.nextInt(posts.size()));
+            reposts.add(Post.builder()
+                    .user(users.get(random.nextInt(USERS)))
+                    .content("repost " + i)
+                    .originalPost(original)
+                    .rootPostId(original.getId())
+                    .isDeleted(false)
+                    .build());
+        }
+        posts.addAll(postRepository.saveAll(reposts));
+        postIds = posts.stream().map(Post::getId).toList();
+
+        List<Like> likes = new ArrayList<>();
+        for (Post post : posts) {
+            int count = random.nextInt(4);
+            for (int k = 0; k < count; k++) {
+                likes.add(Like.builder().post(post).user(users.get(random.nextInt(USERS))).build());
+            }
+        }
+        likeRepository.saveAll(likes);
+
+        for (Post post : posts) {
+            PostDocument document = postMapper.toDocument(post);
+            if (document.getCreatedAt() == null) {
+                document.setCreatedAt(new Date());
+            }
+            search.indexPost(document);
+        }
+
+        log.info("Seeded {} users, {} friendships, {} posts, {} likes in {} ms",
+                users.size(), friendships.size(), posts.size(), likes.size(), System.currentTimeMillis() - started);
+    }
+
+    @AfterAll
+    void report() {
+        StringBuilder table = new StringBuilder("\n").append(ScenarioResult.header());
+        results.forEach(result -> table.append('\n').append(result.row()));
+        log.info("Load test results ({} threads, warm-up {}s, measured {}s):{}",
+                threadMode.tag(), WARMUP.toSeconds(), DURATION.toSeconds(), table);
+    }
+
+    @Test
+    @Order(1)
+    void feedScroll() throws InterruptedException {
+        record(runner.run("feed-scroll", CONCURRENCY, (worker, iteration) ->
+                get("/api/posts?page=" + (iteration % 20) + "&size=10", worker)));
+    }
+
+    @Test
+    @Order(2)
+    void likeStorm() throws InterruptedException {
+        // Like rồi bỏ like xen kẽ trên một nhóm bài nóng để tạo tranh chấp
+        List<Long> hot = postIds.subList(0, Math.min(50, postIds.size()));
+        record(runner.run("like-storm", CONCURRENCY, (worker, iteration) -> {
+            long postId = hot.get((int) ((worker * 7 + iteration / 2) % hot.size()));
+            String method = iteration % 2 == 0 ? "POST" : "DELETE";
+            return send(method, "/api/likes/post/" + postId, worker);
+        }));
+    }
+
+    @Test
+    @Order(3)
+    void friendLists() throws InterruptedException {
+        record(runner.run("friends", CONCURRENCY, (worker, iteration) ->
+                get(iteration % 2 == 0 ? "/api/friendships/friends" : "/api/friendships/suggestions",
+                        (int) ((worker + iteration) % USERS))));
+    }
+
+    @Test
+    @Order(4)
+    void search() throws InterruptedException {
+        record(runner.run("search", CONCURRENCY, (worker, iteration) ->
+                get("/api/posts/search?keyword=" + WORDS[(int) ((worker + iteration) % WORDS.length)] + "&size=10", worker)));
+    }
+
+    @Test
+    @Order(5)
+    void typeahead() throws InterruptedException {
+        // Mỗi worker gõ dần một tên, mỗi lần lặp là một phím
+        record(runner.run("typeahead", CONCURRENCY, (worker, iteration) -> {
+            String name = "user " + ((worker * 13 + iteration / 8) % USERS);
+            String typed = name.substring(0, 1 + (int) (iteration % Math.min(8, name.length())));
+            return get("/api/users/typeahead?q=" + typed.replace(" ", "%20"), worker);
+        }));
+    }
+
+    @Test
+    @Order(6)
+    void chatBurst() throws Exception {
+        int clients = Math.min(CHAT_CLIENTS, USERS);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        Histogram roundTrip = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong delivered = new AtomicLong();
+        Map<Integer, StompSession> sessions = new ConcurrentHashMap<>();
+        Map<Long, Semaphore> windows = new ConcurrentHashMap<>();
+
+        // Người quan sát nghe kênh public, nội dung tin nhắn mang thời điểm gửi để đo độ trễ;
+        // mỗi tin nhận được trả lại một chỗ trong cửa sổ của người gửi
+        StompSession observer = connect(stompClient, 0);
+        observer.subscribe("/topic/public", new JsonFrameHandler(payload -> {
+            Object content = payload.get("content");
+            if (content instanceof String text && text.startsWith("rtt:")) {
+                long sentAt = Long.parseLong(text.substring(4));
+                roundTrip.recordValue(Math.min((System.nanoTime() - sentAt) / 1000, roundTrip.getHighestTrackableValue()));
+                delivered.incrementAndGet();
+                if (payload.get("sender") instanceof Map<?, ?> sender && sender.get("id") instanceof Number id) {
+                    Semaphore window = windows.get(id.longValue());
+                    if (window != null) {
+                        window.release();
+                    }
+                }
+            }
+        }));
+        for (int i = 0; i < clients; i++) {
+            sessions.put(i, connect(stompClient, i));
+            windows.put(users.get(i).getId(), new Semaphore(CHAT_WINDOW));
+        }
+
+        long messagesBefore = chatMessageRepository.count();
+        AtomicLong sent = new AtomicLong();
+        ScenarioResult result = runner.run("chat-send", clients, (worker, iteration) -> {
+            // Mỗi client chỉ giữ tối đa CHAT_WINDOW tin chưa được xác nhận, để đo độ trễ chứ không đo hàng đợi dồn lại
+            User sender = users.get(worker);
+            if (!windows.get(sender.getId()).tryAcquire(5, TimeUnit.SECONDS)) {
+                return false;
+            }
+            User receiver = users.get((worker + 1 + (int) (iteration % (clients - 1 > 0 ? clients - 1 : 1))) % clients);
+            sessions.get(worker).send("/app/chat.send", Map.of(
+                    "sender", Map.of("id", sender.getId()),
+                    "receiver", Map.of("id", receiver.getId()),
+                    "content", "rtt:" + System.nanoTime()));
+            sent.incrementAndGet();
+            return true;
+        });
+        // Mỗi tin được lưu một lần và phát một lần lên /topic/public
+        long expected = sent.get();
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+        long persisted = chatMessageRepository.count() - messagesBefore;
+        while (System.nanoTime() < deadline && (persisted < expected || delivered.get() < expected)) {
+            Thread.sleep(100);
+            persisted = chatMessageRepository.count() - messagesBefore;
+        }
+        sessions.values().forEach(StompSession::disconnect);
+        observer.disconnect();
+        stompClient.stop();
+
+        results.add(result);
+        results.add(new ScenarioResult("chat-rtt", clients, result.elapsed(), delivered.get(),
+                Math.max(0, sent.get() - delivered.get()), roundTrip));
+        log.info("Chat: {} sent (incl. warm-up), {} persisted, {} on /topic/public",
+                sent.get(), persisted, delivered.get());
+        assertTrue(expected > 0, "No chat messages were sent");
+        assertRatio("persisted", persisted, expected);
+        assertRatio("delivered on /topic/public", delivered.get(), expected);
+    }
+
+    private static void assertRatio(String what, long actual, long expected) {
+        double ratio = (double) actual / expected;
+        assertTrue(ratio >= MIN_DELIVERY_RATIO && actual <= expected,
+                String.format("Chat messages %s: %d of %d (%.3f), expected at least %.3f and no duplicates",
+                        what, actual, expected, ratio, MIN_DELIVERY_RATIO));
+    }
+
+    private StompSession connect(WebSocketStompClient stompClient, int userIndex) throws Exception {
+        String token = tokens.get(userIndex);
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.setOrigin("http://localhost:5173");
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws/websocket?token=" + token,
+                        handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private void record(ScenarioResult result) {
+        results.add(result);
+        log.info(result.row());
+        assertTrue(result.succeeded() > 0, "Scenario " + result.name() + " had no successful requests");
+    }
+
+    private boolean get(String path, int userIndex) throws Exception {
+        return send("GET", path, userIndex);
+    }
+
+    private boolean send(String method, String path, int userIndex) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(userIndex % tokens.size()))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() < 400;
+    }
+
+    private record JsonFrameHandler(Consumer<Map<String, Object>> consumer) implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handleFrame(StompHeaders headers, Object payload) {
+            consumer.accept((Map<String, Object>) payload);
+        }
+    }
+}
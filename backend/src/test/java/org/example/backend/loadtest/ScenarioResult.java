@@ -0,0 +1,31 @@
+package org.example.backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one load scenario: throughput and latency percentiles.
+ */
+record ScenarioResult(String name, int concurrency, Duration elapsed, long succeeded, long failed, Histogram latencyMicros) {
+
+    double throughput() {
+        return succeeded / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    static String header() {
+        return String.format("%-14s %5s %9s %7s %10s %8s %8s %8s %8s",
+                "scenario", "conc", "ok", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    String row() {
+        return String.format("%-14s %5d %9d %7d %10.1f %8.2f %8.2f %8.2f %8.2f",
+                name, concurrency, succeeded, failed, throughput(),
+                percentileMillis(50), percentileMillis(95), percentileMillis(99),
+                latencyMicros.getMaxValue() / 1000.0);
+    }
+}
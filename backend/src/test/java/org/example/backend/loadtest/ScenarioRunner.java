@@ -0,0 +1,88 @@
+package org.example.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop driver: each worker runs the operation back to back until the deadline.
+ * A warm-up phase runs first and is not recorded, so JIT and pool start-up stay out
+ * of the percentiles.
+ */
+class ScenarioRunner {
+
+    @FunctionalInterface
+    interface Operation {
+        /**
+         * Runs one operation.
+         *
+         * @param worker Worker index, stable for the worker's lifetime
+         * @param iteration Per-worker iteration counter
+         * @return true if the operation succeeded
+         */
+        boolean run(int worker, long iteration) throws Exception;
+    }
+
+    private final Duration warmup;
+    private final Duration duration;
+
+    ScenarioRunner(Duration warmup, Duration duration) {
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    ScenarioResult run(String name, int concurrency, Operation operation) throws InterruptedException {
+        drive(concurrency, warmup, operation, null, new AtomicLong(), new AtomicLong());
+
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long started = System.nanoTime();
+        drive(concurrency, duration, operation, latency, succeeded, failed);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        return new ScenarioResult(name, concurrency, elapsed, succeeded.get(), failed.get(), latency);
+    }
+
+    private static void drive(int concurrency, Duration length, Operation operation, Histogram latency,
+                              AtomicLong succeeded, AtomicLong failed) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            workers.add(pool.submit(() -> {
+                for (long iteration = 0; System.nanoTime() < deadline; iteration++) {
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = operation.run(worker, iteration);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long micros = (System.nanoTime() - start) / 1000;
+                    if (ok) {
+                        succeeded.incrementAndGet();
+                        if (latency != null) {
+                            latency.recordValue(Math.min(micros, latency.getHighestTrackableValue()));
+                        }
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(length.toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.backend.loadtest;
+
+import org.example.backend.elasticsearch.document.PostDocument;
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.example.backend.elasticsearch.repository.PostESRepository;
+import org.example.backend.elasticsearch.repository.UserESRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory stand-in for Elasticsearch behind the mocked ES repositories.
+ * Writes are kept in maps and the search queries scan them by substring, which is
+ * enough to exercise the search endpoints end to end without a cluster.
+ */
+class SearchStandIn {
+
+    private final Map<String, PostDocument> posts = new ConcurrentHashMap<>();
+    private final Map<String, UserDocument> users = new ConcurrentHashMap<>();
+
+    void install(PostESRepository postRepository, UserESRepository userRepository) {
+        when(postRepository.save(any(PostDocument.class))).thenAnswer(call -> {
+            PostDocument document = call.getArgument(0);
+            posts.put(document.getId(), document);
+            return document;
+        });
+        when(postRepository.saveAll(anyIterable())).thenAnswer(call -> {
+            Iterable<PostDocument> documents = call.getArgument(0);
+            documents.forEach(document -> posts.put(document.getId(), document));
+            return documents;
+        });
+        when(postRepository.searchByContent(anyString(), any(Pageable.class))).thenAnswer(call ->
+                postPage(call.getArgument(0), call.getArgument(1), document -> true));
+        when(postRepository.searchVisibleByContent(anyString(), any(Pageable.class))).thenAnswer(call ->
+                postPage(call.getArgument(0), call.getArgument(1), document -> !document.isDeleted()));
+        when(postRepository.findAllById(anyIterable())).thenAnswer(call -> byId(posts, call.getArgument(0)));
+
+        when(userRepository.save(any(UserDocument.class))).thenAnswer(call -> {
+            UserDocument document = call.getArgument(0);
+            users.put(document.getId(), document);
+            return document;
+        });
+        when(userRepository.saveAll(anyIterable())).thenAnswer(call -> {
+            Iterable<UserDocument> documents = call.getArgument(0);
+            documents.forEach(document -> users.put(document.getId(), document));
+            return documents;
+        });
+        when(userRepository.findAllById(anyIterable())).thenAnswer(call -> byId(users, call.getArgument(0)));
+        when(userRepository.findByFullNameContainingIgnoreCaseAndIsStaffAndIsActive(
+                anyString(), any(), any(), any(Pageable.class))).thenAnswer(call -> {
+            String keyword = call.<String>getArgument(0).toLowerCase(Locale.ROOT);
+            Pageable pageable = call.getArgument(3);
+            List<UserDocument> matches = users.values().stream()
+                    .filter(user -> user.getFullName() != null && user.getFullName().toLowerCase(Locale.ROOT).contains(keyword))
+                    .sorted(Comparator.comparing(UserDocument::getId))
+                    .toList();
+            return page(matches, pageable);
+        });
+        when(userRepository.suggestByNamePrefix(anyString(), any(Pageable.class))).thenAnswer(call -> {
+            String[] prefixes = call.<String>getArgument(0).toLowerCase(Locale.ROOT).split(" ");
+            Pageable pageable = call.getArgument(1);
+            return users.values().stream()
+                    .filter(user -> Boolean.TRUE.equals(user.getIsActive()) && user.getFullName() != null)
+                    .filter(user -> matchesPrefixes(user.getFullName(), prefixes))
+                    .sorted(Comparator.comparing(UserDocument::getId))
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+    }
+
+    void indexPost(PostDocument document) {
+        posts.put(document.getId(), document);
+    }
+
+    void indexUser(UserDocument document) {
+        users.put(document.getId(), document);
+    }
+
+    private Page<PostDocument> postPage(String keyword, Pageable pageable, Predicate<PostDocument> filter) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        List<PostDocument> matches = posts.values().stream()
+                .filter(filter)
+                .filter(document -> document.getContent() != null
+                        && document.getContent().toLowerCase(Locale.ROOT).contains(needle))
+                .sorted(Comparator.comparing(PostDocument::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+        return page(matches, pageable);
+    }
+
+    // Mỗi từ đã gõ phải là tiền tố của một từ trong tên, giống trường edge n-gram
+    private static boolean matchesPrefixes(String fullName, String[] prefixes) {
+        List<String> words = List.of(fullName.toLowerCase(Locale.ROOT).split(" "));
+        for (String prefix : prefixes) {
+            if (words.stream().noneMatch(word -> word.startsWith(prefix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> List<T> byId(Map<String, T> documents, Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> {
+            T document = documents.get(id);
+            if (document != null) {
+                found.add(document);
+            }
+        });
+        return found;
+    }
+
+    private static <T> Page<T> page(List<T> matches, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.backend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryBudgetFilterTest {
+
+    private static final int MAX_STATEMENTS = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private QueryBudgetFilter filter(boolean failOnExceed) {
+        return new QueryBudgetFilter(meterRegistry, true, MAX_STATEMENTS, 500, 10, failOnExceed);
+    }
+
+    // Chạy nhiều câu lệnh hơn ngân sách và nuốt ngoại lệ như mã ứng dụng có thể làm
+    private static FilterChain overBudgetChain() {
+        return (request, response) -> {
+            for (int i = 0; i <= MAX_STATEMENTS; i++) {
+                try {
+                    QueryTracker.onStatement("select * from posts where id = " + i);
+                } catch (QueryBudgetExceededException ignored) {
+                }
+            }
+        };
+    }
+
+    @Test
+    void requestFailsEvenWhenTheStatementExceptionIsCaught() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+
+        assertThrows(QueryBudgetExceededException.class,
+                () -> filter(true).doFilter(request, new MockHttpServletResponse(), overBudgetChain()));
+        assertEquals(1, meterRegistry.counter("http.server.sql.budget.exceeded",
+                "method", "GET", "uri", "UNKNOWN").count());
+    }
+
+    @Test
+    void recordOnlyModeLetsTheRequestThrough() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+
+        assertDoesNotThrow(() -> filter(false).doFilter(request, new MockHttpServletResponse(), overBudgetChain()));
+        assertEquals(1, meterRegistry.counter("http.server.sql.budget.exceeded",
+                "method", "GET", "uri", "UNKNOWN").count());
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private record Doc(String id, String text) {
+    }
+
+    private static InvertedIndex<Doc> index(Doc... documents) {
+        InvertedIndex<Doc> index = new InvertedIndex<>(Doc::id, Doc::text);
+        for (Doc document : documents) {
+            index.put(document);
+        }
+        return index;
+    }
+
+    private static List<String> ranked(List<InvertedIndex.Hit<Doc>> hits) {
+        return hits.stream()
+                .sorted(Comparator.comparingDouble((InvertedIndex.Hit<Doc> hit) -> hit.score()).reversed())
+                .map(InvertedIndex.Hit::id)
+                .toList();
+    }
+
+    private static Set<String> ids(List<InvertedIndex.Hit<Doc>> hits) {
+        return hits.stream().map(InvertedIndex.Hit::id).collect(Collectors.toSet());
+    }
+
+    @Test
+    void singleTermScoreMatchesBm25Formula() {
+        InvertedIndex<Doc> index = index(new Doc("1", "coffee"), new Doc("2", "tea"));
+
+        List<InvertedIndex.Hit<Doc>> hits = index.search("coffee", false, document -> true);
+
+        // df = 1 trên N = 2, độ dài bằng trung bình, tf = 1: điểm chỉ còn idf = ln 2
+        assertEquals(1, hits.size());
+        assertEquals(Math.log(2), hits.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void higherTermFrequencyAndShorterDocumentRankFirst() {
+        InvertedIndex<Doc> index = index(
+                new Doc("long", "coffee with milk and sugar at the weekend"),
+                new Doc("repeated", "coffee coffee"),
+                new Doc("short", "coffee"),
+                new Doc("other", "travel"));
+
+        assertEquals(List.of("repeated", "short", "long"), ranked(index.search("coffee", false, document -> true)));
+    }
+
+    @Test
+    void rarerTermWeighsMore() {
+        InvertedIndex<Doc> index = index(
+                new Doc("common", "music music"),
+                new Doc("rare", "sunset sunset"),
+                new Doc("a", "music"),
+                new Doc("b", "music"));
+
+        List<InvertedIndex.Hit<Doc>> common = index.search("music", false, document -> true);
+        List<InvertedIndex.Hit<Doc>> rare = index.search("sunset", false, document -> true);
+
+        double commonScore = common.stream().filter(hit -> hit.id().equals("common")).findFirst().orElseThrow().score();
+        assertTrue(rare.get(0).score() > commonScore);
+    }
+
+    @Test
+    void everyQueryWordMustMatchAndScoresAdd() {
+        InvertedIndex<Doc> index = index(new Doc("1", "coffee sunset"), new Doc("2", "coffee"), new Doc("3", "sunset"));
+
+        List<InvertedIndex.Hit<Doc>> both = index.search("sunset coffee", false, document -> true);
+        double coffee = index.search("coffee", false, document -> true).stream()
+                .filter(hit -> hit.id().equals("1")).findFirst().orElseThrow().score();
+        double sunset = index.search("sunset", false, document -> true).stream()
+                .filter(hit -> hit.id().equals("1")).findFirst().orElseThrow().score();
+
+        assertEquals(Set.of("1"), ids(both));
+        assertEquals(coffee + sunset, both.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void prefixMatchesFoldedWordStarts() {
+        InvertedIndex<Doc> index = index(new Doc("1", "Nguyễn Văn An"), new Doc("2", "Đà Nẵng"), new Doc("3", "Anh Thư"));
+
+        assertEquals(Set.of("1", "3"), ids(index.search("an", true, document -> true)));
+        assertEquals(Set.of("1"), ids(index.search("an", false, document -> true)));
+        assertEquals(Set.of("2"), ids(index.search("đà nă", true, document -> true)));
+        assertEquals(Set.of(), ids(index.search("ang", true, document -> true)));
+    }
+
+    @Test
+    void prefixTakesBestMatchingWordPerDocument() {
+        InvertedIndex<Doc> index = index(new Doc("1", "anh an"), new Doc("2", "binh"));
+
+        List<InvertedIndex.Hit<Doc>> prefix = index.search("an", true, document -> true);
+        double anh = index.search("anh", false, document -> true).get(0).score();
+        double an = index.search("an", false, document -> true).get(0).score();
+
+        assertEquals(Math.max(anh, an), prefix.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsLeaveNoPostings() {
+        InvertedIndex<Doc> index = index(new Doc("1", "football weekend"), new Doc("2", "football"));
+
+        index.put(new Doc("1", "music"));
+        index.remove("2");
+
+        assertEquals(Set.of(), ids(index.search("foot", true, document -> true)));
+        assertEquals(Set.of("1"), ids(index.search("mus", true, document -> true)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        InvertedIndex<Doc> index = index(new Doc("1", "coffee"));
+
+        assertEquals(List.of(), index.search("  ", true, document -> true));
+        assertEquals(List.of(), index.search("!!!", false, document -> true));
+        assertEquals(List.of(), index.search(null, false, document -> true));
+    }
+
+    @Test
+    void filterIsAppliedAfterMatching() {
+        InvertedIndex<Doc> index = index(new Doc("1", "code"), new Doc("2", "code"));
+
+        assertEquals(Set.of("2"), ids(index.search("code", false, document -> document.id().equals("2"))));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.backend.search;
+
+import org.example.backend.elasticsearch.document.UserDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalSearchBackendTest {
+
+    private LocalSearchBackend backend;
+
+    private static UserDocument user(String id, String fullName, boolean active, int loggedInDaysAgo) {
+        return UserDocument.builder()
+                .id(id)
+                .fullName(fullName)
+                .isStaff(false)
+                .isActive(active)
+                .lastLogin(ZonedDateTime.now().minusDays(loggedInDaysAgo))
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        backend = new LocalSearchBackend();
+        backend.saveUsers(List.of(
+                user("1", "Nguyen Van An", true, 3),
+                user("2", "Tran Thi Binh", true, 1),
+                user("3", "Le Van Cuong", false, 2)));
+    }
+
+    @Test
+    void blankKeywordPagesThroughUsersPassingTheFilters() {
+        PageRequest firstPage = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "lastLogin"));
+
+        Page<UserDocument> page = backend.searchUsers(null, null, true, firstPage);
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("2"), page.map(UserDocument::getId).getContent());
+        assertEquals(List.of("1"), backend.searchUsers(" ", null, true, firstPage.next())
+                .map(UserDocument::getId).getContent());
+    }
+
+    @Test
+    void blankPostSearchAndSuggestionsStayEmpty() {
+        assertTrue(backend.searchPosts(" ", false, PageRequest.of(0, 10)).isEmpty());
+        assertTrue(backend.suggestUsers("", 10).isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostContentTagsTest {
+
+    @Test
+    void accentAndCaseVariantsInOnePostShareOneHashtag() {
+        PostContentTags tags = PostContentTags.parse("#Café #cafe #CAFE #café #café #ĐàNẵng #danang #STRASSE #straße");
+
+        assertEquals(List.of("cafe", "danang", "strasse"), List.copyOf(tags.hashtags()));
+    }
+
+    @Test
+    void normalizeHashtagMatchesParsedTag() {
+        assertEquals("cafe", PostContentTags.normalizeHashtag(" #Café "));
+        assertEquals("hanoi", PostContentTags.normalizeHashtag("HàNội"));
+    }
+
+    @Test
+    void caseVariantsOfOneEmailAreOneMention() {
+        PostContentTags tags = PostContentTags.parse("@An@Example.com hi @an@example.com and @AN@EXAMPLE.COM");
+
+        assertEquals(Set.of("an@example.com"), tags.mentionedEmails());
+    }
+
+    @Test
+    void hashInsideWordOrEntityIsNotATag() {
+        PostContentTags tags = PostContentTags.parse("a#b &#39; http://x.io/#frag");
+
+        assertEquals(Set.of(), tags.hashtags());
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.security.JwtUtil;
+import org.example.backend.security.RefreshTokenRevocationStore;
+import org.example.backend.security.UserRoleCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @TempDir
+    Path snapshotDir;
+
+    private JwtUtil jwtUtil;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("");
+        RefreshTokenRevocationStore store =
+                new RefreshTokenRevocationStore(jwtUtil, snapshotDir.resolve("revocations.bin").toString());
+        UserRoleCache roleCache = mock(UserRoleCache.class);
+        when(roleCache.get(EMAIL)).thenReturn(Optional.of(new UserRoleCache.UserRole(1L, false, false, true)));
+        service = new RefreshTokenService(jwtUtil, store, roleCache, new SimpleMeterRegistry(), 10);
+    }
+
+    @Test
+    void logoutRevokesTokenIssuedEarlierInTheSameSecond() {
+        awaitStartOfSecond();
+        String refreshToken = service.issue(EMAIL);
+        Instant issuedAt = JwtUtil.getIssuedAt(jwtUtil.getRefreshClaims(refreshToken));
+        awaitNextMillisecond(issuedAt);
+
+        service.revokeAll(EMAIL);
+
+        assertEquals(issuedAt.getEpochSecond(), Instant.now().getEpochSecond());
+        assertEquals(RefreshTokenService.Outcome.REVOKED, service.rotate(refreshToken).outcome());
+    }
+
+    @Test
+    void loginAfterLogoutInTheSameSecondStaysValid() {
+        awaitStartOfSecond();
+        service.revokeAll(EMAIL);
+        awaitNextMillisecond(Instant.now());
+
+        String refreshToken = service.issue(EMAIL);
+
+        assertEquals(RefreshTokenService.Outcome.ROTATED, service.rotate(refreshToken).outcome());
+    }
+
+    // Chờ tới nửa đầu của một giây để cả hai thao tác chắc chắn rơi vào cùng một giây
+    private static void awaitStartOfSecond() {
+        while (Instant.now().getNano() > 500_000_000) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitNextMillisecond(Instant after) {
+        while (Instant.now().toEpochMilli() <= after.toEpochMilli()) {
+            Thread.onSpinWait();
+        }
+    }
+}
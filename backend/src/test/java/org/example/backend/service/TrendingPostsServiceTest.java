@@ -0,0 +1,87 @@
+package org.example.backend.service;
+
+import org.example.backend.entity.PostTrendScore;
+import org.example.backend.repository.PostTrendScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TrendingPostsServiceTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+
+    private PostTrendScoreRepository repository;
+    private TrendingPostsService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PostTrendScoreRepository.class);
+        service = new TrendingPostsService(repository, mock(SearchResultCache.class), 1, 0.05, 1000, 30, 50);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Double> persistedScores() {
+        ArgumentCaptor<Iterable<PostTrendScore>> rows = ArgumentCaptor.forClass(Iterable.class);
+        service.persist();
+        verify(repository).saveAll(rows.capture());
+        return StreamSupport.stream(rows.getValue().spliterator(), false)
+                .collect(Collectors.toMap(PostTrendScore::getPostId, PostTrendScore::getScore));
+    }
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        Instant now = Instant.now();
+        service.onEngagement(PostEngagementEvent.like(1L));
+        service.onEngagement(new PostEngagementEvent(2L, 1.0, now.minus(HALF_LIFE)));
+        service.onEngagement(new PostEngagementEvent(3L, 1.0, now.minus(HALF_LIFE.multipliedBy(2))));
+
+        Map<Long, Double> scores = persistedScores();
+
+        assertEquals(1.0, scores.get(1L), 0.01);
+        assertEquals(0.5, scores.get(2L), 0.01);
+        assertEquals(0.25, scores.get(3L), 0.01);
+    }
+
+    @Test
+    void unlikeRemovesWhatTheDecayedLikeAdded() {
+        Instant likedAt = Instant.now().minus(HALF_LIFE.multipliedBy(3));
+        service.onEngagement(new PostEngagementEvent(1L, 1.0, likedAt));
+        service.onEngagement(PostEngagementEvent.comment(1L));
+        service.onEngagement(PostEngagementEvent.unlike(1L, likedAt));
+
+        // Chỉ còn bình luận; nếu gỡ theo thời điểm hiện tại, điểm sẽ hụt mất gần trọn một lượt thích
+        assertEquals(2.0, persistedScores().get(1L), 0.01);
+    }
+
+    @Test
+    void likeThenUnlikeLeavesNothing() {
+        Instant likedAt = Instant.now().minus(Duration.ofMinutes(90));
+        service.onEngagement(new PostEngagementEvent(1L, 1.0, likedAt));
+        service.onEngagement(PostEngagementEvent.unlike(1L, likedAt));
+
+        assertFalse(persistedScores().containsKey(1L));
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void uncommentUsesTheCommentTime() {
+        Instant commentedAt = Instant.now().minus(HALF_LIFE);
+        service.onEngagement(new PostEngagementEvent(1L, 2.0, commentedAt));
+        service.onEngagement(PostEngagementEvent.uncomment(1L, commentedAt));
+
+        assertFalse(persistedScores().containsKey(1L));
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+}
@@ -1,6 +1,6 @@
 import { useLocation } from "react-router-dom";
 import type React from "react"
-import { useState } from "react"
+import { useEffect, useState } from "react"
 import { Link, useNavigate } from "react-router-dom"
 import {
   AppBar,
@@ -22,11 +22,13 @@ import {
   ListItemIcon,
   ListItemText,
   Divider,
+  Paper,
 } from "@mui/material"
 import { Chat, Search, Settings, Logout, Person, Menu as MenuIcon, Home, Group, Bookmark } from "@mui/icons-material"
 import { logout } from "../../../services/authService"
 import { useCurrentUser } from "../../../contexts/currentUserContext"
 import NotificationDropdown from "../../../components/Notifications/NotificationDropdown"
+import UserService, { type UserSuggestion } from "../../../services/userService"
 
 interface NavbarProps {
   onMenuToggle?: () => void
@@ -43,6 +45,8 @@ const Navbar: React.FC<NavbarProps> = () => {
   const initialQuery = queryParams.get("q") || ""; // Get the 'q' parameter or default to an empty string
   const [searchQuery, setSearchQuery] = useState(initialQuery); // Initialize with the query param
 
+  const [suggestions, setSuggestions] = useState<UserSuggestion[]>([])
+  const [showSuggestions, setShowSuggestions] = useState(false)
   const [showMobileSearch, setShowMobileSearch] = useState(false)
   const [isChatOpen, setIsChatOpen] = useState(false)
   const open = Boolean(anchorEl)
@@ -69,6 +73,33 @@ const Navbar: React.FC<NavbarProps> = () => {
     }
   };
 
+  useEffect(() => {
+    const query = searchQuery.trim()
+    if (!query) {
+      setSuggestions([])
+      return
+    }
+    let cancelled = false
+    // Chờ người dùng ngừng gõ một chút rồi mới gọi, kết quả cũ bị bỏ qua
+    const timer = setTimeout(async () => {
+      try {
+        const result = await UserService.suggestUsers(query)
+        if (!cancelled) setSuggestions(result)
+      } catch {
+        if (!cancelled) setSuggestions([])
+      }
+    }, 150)
+    return () => {
+      cancelled = true
+      clearTimeout(timer)
+    }
+  }, [searchQuery])
+
+  const handleSuggestionClick = (suggestion: UserSuggestion) => {
+    setShowSuggestions(false)
+    navigate(`/profile/${suggestion.email}`)
+  }
+
   const toggleMobileSearch = () => {
     setShowMobileSearch(!showMobileSearch)
   }
@@ -137,13 +168,15 @@ const Navbar: React.FC<NavbarProps> = () => {
 
            {/* Search bar - Desktop */}
       {!isMobile && (
-        <Box component="form" onSubmit={handleSearch} sx={{ flexGrow: 1, maxWidth: "500px" }}>
+        <Box component="form" onSubmit={handleSearch} sx={{ flexGrow: 1, maxWidth: "500px", position: "relative" }}>
           <TextField
             placeholder="Tìm kiếm..."
             size="small"
             fullWidth
             value={searchQuery} // Controlled input
             onChange={(e) => setSearchQuery(e.target.value)} // Update state on input change
+            onFocus={() => setShowSuggestions(true)}
+            onBlur={() => setShowSuggestions(false)}
             InputProps={{
               startAdornment: (
                 <InputAdornment position="start">
@@ -158,6 +191,28 @@ const Navbar: React.FC<NavbarProps> = () => {
               },
             }}
           />
+          {showSuggestions && suggestions.length > 0 && (
+            <Paper sx={{ position: "absolute", top: "100%", left: 0, right: 0, mt: 0.5, zIndex: 10 }}>
+              <List dense>
+                {suggestions.map((suggestion) => (
+                  <ListItem
+                    key={suggestion.id}
+                    // onMouseDown chạy trước onBlur của ô tìm kiếm
+                    onMouseDown={(e) => {
+                      e.preventDefault()
+                      handleSuggestionClick(suggestion)
+                    }}
+                    sx={{ cursor: "pointer", "&:hover": { bgcolor: "rgba(0, 0, 0, 0.04)" } }}
+                  >
+                    <ListItemIcon>
+                      <Avatar src={suggestion.avatar ?? undefined} sx={{ width: 28, height: 28 }} />
+                    </ListItemIcon>
+                    <ListItemText primary={suggestion.name} />
+                  </ListItem>
+                ))}
+              </List>
+            </Paper>
+          )}
         </Box>
       )}
 
@@ -108,8 +108,12 @@ export const refreshToken = async (): Promise<string> => {
       throw new Error(`Server responded with status ${response.status}`);
     }
 
-    const { accessToken } = response.data;
+    const { accessToken, refreshToken: rotatedRefreshToken } = response.data;
     tokenService.setAccessToken(accessToken);
+    // Refresh token is single-use: keep the rotated one for the next refresh
+    if (rotatedRefreshToken) {
+      tokenService.setRefreshToken(rotatedRefreshToken);
+    }
     setAuthHeader(accessToken);
     return accessToken;
   } catch (error) {
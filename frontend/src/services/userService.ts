@@ -1,5 +1,12 @@
 import { api } from "../configs/api";
 
+export interface UserSuggestion {
+    id: number;
+    email: string;
+    name: string;
+    avatar: string | null;
+}
+
 class UserService {
     async searchUsers(keyword: string, isStaff: boolean, isActive: boolean, page: number, size: number) {
         try {
@@ -10,6 +17,12 @@ class UserService {
             throw error;
         }
     }
+
+    // Gợi ý người dùng theo tiền tố tên, gọi khi đang gõ ở ô tìm kiếm
+    async suggestUsers(query: string, limit = 8): Promise<UserSuggestion[]> {
+        const response = await api.get<UserSuggestion[]>("/users/typeahead", { params: { q: query, limit } });
+        return response.data;
+    }
 }
 
 export default new UserService();
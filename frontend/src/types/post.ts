@@ -29,6 +29,7 @@ export interface Post {
   likesCount: number;
   liked: boolean;
   commentsCount: number;
+  repostsCount?: number;
   saved?: boolean;
   originalPost?: Post;
   deleted?: boolean;
@@ -26,6 +26,7 @@ export interface TokenPair {
   
 export interface RefreshResponse {
     accessToken: string;
+    refreshToken?: string;
 }
 
 export interface RegisterCredentials {